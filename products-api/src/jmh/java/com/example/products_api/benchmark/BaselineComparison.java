@@ -0,0 +1,117 @@
+package com.example.products_api.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+/**
+ * Compares a JMH JSON result with a stored baseline and reports the
+ * benchmarks that got slower than the tolerance allows.
+ * <p>
+ * Usage: {@code BaselineComparison <result.json> <baseline.json> <tolerance>
+ * [update] [fail]}, where tolerance is a fraction such as {@code 0.20}. A
+ * benchmark only counts as regressed when its confidence interval, widened
+ * by the tolerance, no longer overlaps the baseline's, so a noisy score
+ * cannot fail the build on its own. Regressions fail the comparison only
+ * with {@code fail} set to {@code true}; a missing baseline always does.
+ * With {@code update} set to {@code true} the result's benchmarks replace
+ * theirs in the baseline and the others are kept, so a subset can be
+ * re-recorded. Baselines are only comparable when recorded on the same
+ * hardware.
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File result = new File(args[0]);
+        File baseline = new File(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+        boolean update = args.length > 3 && Boolean.parseBoolean(args[3]);
+        boolean fail = args.length > 4 && Boolean.parseBoolean(args[4]);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> current = index(objectMapper.readTree(result));
+        if (update) {
+            Map<String, JsonNode> recorded = baseline.isFile()
+                    ? index(objectMapper.readTree(baseline))
+                    : new LinkedHashMap<>();
+            recorded.putAll(current);
+            ArrayNode merged = objectMapper.createArrayNode();
+            new TreeMap<>(recorded).values().forEach(merged::add);
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(baseline, merged);
+            System.out.printf("Recorded %d benchmark(s) from %s in the JMH baseline at %s%n", current.size(), result,
+                    baseline);
+            return;
+        }
+        if (!baseline.isFile()) {
+            System.out.printf("No JMH baseline at %s; record one with -Djmh.update-baseline=true.%n", baseline);
+            System.exit(1);
+        }
+        Map<String, JsonNode> previous = index(objectMapper.readTree(baseline));
+
+        int regressions = 0;
+        System.out.printf("%-80s %22s %22s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : new TreeMap<>(current).entrySet()) {
+            JsonNode now = entry.getValue().path("primaryMetric");
+            JsonNode before = previous.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-80s %22s %22s%n", entry.getKey(), "new", format(now));
+                continue;
+            }
+            before = before.path("primaryMetric");
+            double baselineScore = before.path("score").asDouble();
+            double currentScore = now.path("score").asDouble();
+            double baselineError = error(before);
+            double currentError = error(now);
+            // Throughput improves upwards, every time-based mode downwards.
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            boolean regressed = higherIsBetter
+                    ? currentScore + currentError < (baselineScore - baselineError) * (1 - tolerance)
+                    : currentScore - currentError > (baselineScore + baselineError) * (1 + tolerance);
+            if (regressed) {
+                regressions++;
+            }
+            double change = (currentScore - baselineScore) / baselineScore;
+            System.out.printf("%-80s %22s %22s %+8.1f%%%s%n", entry.getKey(), format(before), format(now),
+                    change * 100, regressed ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%% beyond their error%n", regressions,
+                    tolerance * 100);
+            if (fail) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /** The score's 99.9% confidence half-width; zero when JMH could not compute one. */
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String format(JsonNode metric) {
+        double score = metric.path("score").asDouble();
+        return String.format("%.3f +/- %3.0f%%", score, score == 0 ? 0 : error(metric) / score * 100);
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode run : results) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            run.path("params").fields().forEachRemaining(
+                    param -> key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            byName.put(key.toString(), run);
+        }
+        return byName;
+    }
+}
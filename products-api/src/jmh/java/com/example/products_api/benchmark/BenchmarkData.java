@@ -0,0 +1,32 @@
+package com.example.products_api.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.example.products_api.entity.ProductEntity;
+
+/**
+ * Deterministic product fixtures, so every run measures the same data.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+
+    private BenchmarkData() {
+    }
+
+    static List<ProductEntity> products(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<ProductEntity> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ProductEntity product = new ProductEntity("Product " + i,
+                    "Description of product " + i + " with a realistic amount of text",
+                    BigDecimal.valueOf(random.nextInt(1, 100_000), 2));
+            product.setId((long) i + 1);
+            products.add(product);
+        }
+        return products;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.products_api.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.products_api.dto.ProductDTO;
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.mapper.ProductMapper;
+import com.example.products_api.utils.PagedResponse;
+
+/**
+ * Per-page cost of turning entities into DTOs: the reflective ModelMapper
+ * the controller used to call against {@link ProductMapper}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({ "10", "100" })
+    int pageSize;
+
+    private PagedResponse<ProductEntity> page;
+    private ProductEntity product;
+    private ModelMapper modelMapper;
+    private ProductMapper productMapper;
+
+    @Setup
+    public void setUp() {
+        List<ProductEntity> products = BenchmarkData.products(pageSize);
+        page = new PagedResponse<>(products, 1000L, 1000 / pageSize, true);
+        product = products.get(0);
+        modelMapper = new ModelMapper();
+        productMapper = new ProductMapper();
+    }
+
+    @Benchmark
+    public ProductDTO modelMapperSingle() {
+        return modelMapper.map(product, ProductDTO.class);
+    }
+
+    @Benchmark
+    public ProductDTO productMapperSingle() {
+        return productMapper.toDto(product);
+    }
+
+    @Benchmark
+    public PagedResponse<ProductDTO> modelMapperPage() {
+        return page.map(entity -> modelMapper.map(entity, ProductDTO.class));
+    }
+
+    @Benchmark
+    public PagedResponse<ProductDTO> productMapperPage() {
+        return page.map(productMapper::toDto);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.products_api.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.products_api.ProductsApiApplication;
+import com.example.products_api.dto.BatchItemResult;
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.service.CountStrategy;
+import com.example.products_api.service.ProductService;
+import com.example.products_api.utils.CursorPagedResponse;
+import com.example.products_api.utils.PagedResponse;
+
+/**
+ * {@link ProductService} against the embedded H2 database of the test
+ * profile, seeded with {@link #CATALOG_SIZE} products.
+ * <p>
+ * List-page coalescing is switched off so the list benchmarks measure the
+ * query and mapping on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+@State(Scope.Benchmark)
+public class ProductServiceBenchmark {
+
+    static final int CATALOG_SIZE = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private long[] ids;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // ProductController needs the MVC infrastructure, so run a web
+        // application on a random port rather than a plain context.
+        SpringApplication application = new SpringApplication(ProductsApiApplication.class);
+        application.setAdditionalProfiles("test");
+        context = application.run("--server.port=0", "--logging.level.root=WARN",
+                "--products.coalescing.window=0");
+        productService = context.getBean(ProductService.class);
+
+        List<ProductEntity> catalog = BenchmarkData.products(CATALOG_SIZE);
+        catalog.forEach(product -> product.setId(null));
+        List<BatchItemResult> results = productService.createProducts(catalog);
+        ids = results.stream().mapToLong(BatchItemResult::id).toArray();
+        random = new SplittableRandom(BenchmarkData.SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PagedResponse<ProductEntity> listFirstPageExactCount() {
+        return productService.getProducts(1, 10, "name", "asc", CountStrategy.EXACT);
+    }
+
+    @Benchmark
+    public PagedResponse<ProductEntity> listDeepPageExactCount() {
+        return productService.getProducts(900, 10, "name", "asc", CountStrategy.EXACT);
+    }
+
+    @Benchmark
+    public PagedResponse<ProductEntity> listFirstPageCachedCount() {
+        return productService.getProducts(1, 10, "name", "asc", CountStrategy.CACHED);
+    }
+
+    @Benchmark
+    public CursorPagedResponse<ProductEntity> listFirstPageCursor() {
+        return productService.getProductsAfter("", 10, "name", "asc");
+    }
+
+    @Benchmark
+    public ProductEntity getHotProduct() {
+        return productService.getProductById(ids[0]);
+    }
+
+    @Benchmark
+    public ProductEntity getRandomProduct() {
+        return productService.getProductById(ids[random.nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public ProductEntity createProduct() {
+        return productService.createProduct(new ProductEntity("Benchmark", "Created by JMH", new BigDecimal("9.99")));
+    }
+}
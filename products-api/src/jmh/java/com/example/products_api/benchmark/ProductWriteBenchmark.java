@@ -0,0 +1,158 @@
+package com.example.products_api.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.products_api.ProductsApiApplication;
+import com.example.products_api.dto.BatchItemResult;
+import com.example.products_api.dto.ProductPatch;
+import com.example.products_api.entity.ProductChangeEntity;
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.repository.ProductRepository;
+import com.example.products_api.service.ProductChangeService;
+import com.example.products_api.service.ProductService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Single-statement update and delete against the read-modify-write they
+ * replaced, on the H2 database of the test profile. Both variants run the
+ * repository calls {@link ProductService} makes in one transaction and
+ * record the change, and leave out the cache, page and feed work the service
+ * does after commit, which is the same for both; they differ only in the
+ * statements sent. Statements per operation, each a round trip on a
+ * networked database, are printed at the end of every trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(3)
+@State(Scope.Benchmark)
+public class ProductWriteBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private ProductChangeService productChangeService;
+    private TransactionTemplate transactions;
+    private Statistics statistics;
+    private long[] ids;
+    private SplittableRandom random;
+    private long operations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // ProductController needs the MVC infrastructure, so run a web
+        // application on a random port rather than a plain context.
+        SpringApplication application = new SpringApplication(ProductsApiApplication.class);
+        application.setAdditionalProfiles("test");
+        context = application.run("--server.port=0", "--logging.level.root=WARN",
+                "--spring.jpa.properties.hibernate.generate_statistics=true");
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        productChangeService = context.getBean(ProductChangeService.class);
+        transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        List<ProductEntity> catalog = BenchmarkData.products(ProductServiceBenchmark.CATALOG_SIZE);
+        catalog.forEach(product -> product.setId(null));
+        ids = productService.createProducts(catalog).stream().mapToLong(BatchItemResult::id).toArray();
+        random = new SplittableRandom(BenchmarkData.SEED);
+        statistics.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%.2f statements per operation%n",
+                (double) statistics.getPrepareStatementCount() / operations);
+        context.close();
+    }
+
+    @Benchmark
+    public ProductEntity updateSingleStatement() {
+        operations++;
+        long id = randomId();
+        ProductPatch values = new ProductPatch("Benchmark", "Updated by JMH", randomPrice());
+        return transactions.execute(status -> {
+            ProductEntity updated = productRepository.replaceReturning(id, values, null).orElseThrow();
+            productChangeService.record(id, ProductChangeEntity.Type.UPSERT);
+            return updated;
+        });
+    }
+
+    @Benchmark
+    public ProductEntity updateLoadThenSave() {
+        operations++;
+        long id = randomId();
+        BigDecimal price = randomPrice();
+        return transactions.execute(status -> {
+            ProductEntity product = productRepository.findById(id).orElseThrow();
+            product.setName("Benchmark");
+            product.setDescription("Updated by JMH");
+            product.setPrice(price);
+            ProductEntity updated = productRepository.save(product);
+            productChangeService.record(id, ProductChangeEntity.Type.UPSERT);
+            return updated;
+        });
+    }
+
+    /**
+     * Creates the product it deletes, in both delete benchmarks alike.
+     */
+    @Benchmark
+    public void deleteSingleStatement() {
+        operations++;
+        long id = createProduct();
+        transactions.executeWithoutResult(status -> {
+            if (productRepository.deleteProductById(id) == 0) {
+                throw new IllegalStateException("Product " + id + " was not deleted");
+            }
+            productChangeService.record(id, ProductChangeEntity.Type.DELETE);
+        });
+    }
+
+    @Benchmark
+    public void deleteLoadThenDelete() {
+        operations++;
+        long id = createProduct();
+        transactions.executeWithoutResult(status -> {
+            productRepository.delete(productRepository.findById(id).orElseThrow());
+            productChangeService.record(id, ProductChangeEntity.Type.DELETE);
+        });
+    }
+
+    private long createProduct() {
+        return productRepository.save(new ProductEntity("Benchmark", "Deleted by JMH", new BigDecimal("9.99")))
+                .getId();
+    }
+
+    private long randomId() {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private BigDecimal randomPrice() {
+        return BigDecimal.valueOf(random.nextInt(1, 100_000), 2);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.products_api.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.products_api.dto.ProductDTO;
+import com.example.products_api.mapper.ProductMapper;
+import com.example.products_api.utils.PagedResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Encoding of a listing page in each negotiable format, configured the way
+ * Spring MVC builds its ObjectMappers, with and without gzip. Bytes on the
+ * wire per page are printed once per trial, next to the CPU time measured here.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({ "10", "100" })
+    int pageSize;
+
+    @Param({ "json", "cbor", "smile" })
+    String format;
+
+    private PagedResponse<ProductDTO> page;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() throws IOException {
+        ProductMapper productMapper = new ProductMapper();
+        List<ProductDTO> products = BenchmarkData.products(pageSize).stream().map(productMapper::toDto).toList();
+        page = new PagedResponse<>(products, 1000L, 1000 / pageSize, true);
+        ObjectMapper mapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        writer = mapper.writerFor(PagedResponse.class);
+        System.out.printf("%n%s page of %d: %d bytes, %d gzipped%n", format, pageSize, pagedResponse().length,
+                pagedResponseGzip().length);
+    }
+
+    @Benchmark
+    public byte[] pagedResponse() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] pagedResponseGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, page);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.products_api.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.example.products_api.ProductsApiApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Measures how much mixed traffic one instance sustains. The service runs
+ * in-process against PostgreSQL seeded with {@code ${loadtest.products}}
+ * products, and {@link ProductWorkload} is replayed at each of
+ * {@code ${loadtest.concurrency-levels}}. The capacity is the highest
+ * throughput whose p99 stays within {@code ${loadtest.p99-target}} with under
+ * 1% errors (5xx, including load-shedding 503s).
+ * <p>
+ * PostgreSQL is a throwaway Testcontainers instance of the image the
+ * Kubernetes manifests deploy, unless {@code -Dloadtest.datasource-url} points
+ * at an existing database; seeded rows are then kept and reused by the next
+ * run. The report goes to {@code ${loadtest.report-dir}/capacity.md} and
+ * {@code capacity.json}; with {@code -Dloadtest.baseline=<capacity.json of an
+ * earlier build>} it also shows the change against that run.
+ */
+public final class CapacityReport {
+
+    private static final String POSTGRES_IMAGE = "postgres:14";
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    record Measurement(String name, long requests, long errors, double throughput, double p50Millis,
+            double p90Millis, double p99Millis, double maxMillis, List<Measurement> endpoints) {
+
+        static Measurement of(LoadGenerator.Result result) {
+            return new Measurement(result.name(), result.requests(), result.errors(), result.throughput(),
+                    result.p50Micros() / 1000.0, result.p90Micros() / 1000.0, result.p99Micros() / 1000.0,
+                    result.maxMicros() / 1000.0, result.endpoints().stream().map(Measurement::of).toList());
+        }
+
+        double errorRate() {
+            return requests == 0 ? 1 : (double) errors / requests;
+        }
+    }
+
+    record Export(long rows, long bytes, double seconds) {
+    }
+
+    record Report(String database, int products, int writePercent, double p99TargetMillis, String java, int cpus,
+            long maxHeapMegabytes, double secondsPerLevel, List<Measurement> levels, Measurement capacity,
+            Export export) {
+    }
+
+    private CapacityReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int products = Integer.getInteger("loadtest.products", 1_000_000);
+        List<Integer> levels = Arrays.stream(System.getProperty("loadtest.concurrency-levels", "8,16,32,64,128")
+                .split(",")).map(String::strip).map(Integer::valueOf).toList();
+        int writePercent = Integer.getInteger("loadtest.write-percent", 10);
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s"));
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s"));
+        Duration p99Target = DurationStyle.detectAndParse(System.getProperty("loadtest.p99-target", "100ms"));
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"));
+        String baseline = System.getProperty("loadtest.baseline", "");
+        String datasourceUrl = System.getProperty("loadtest.datasource-url", "");
+
+        try (PostgreSQLContainer<?> postgres = datasourceUrl.isBlank()
+                ? new PostgreSQLContainer<>(POSTGRES_IMAGE)
+                : null) {
+            String url = datasourceUrl;
+            String username = System.getProperty("loadtest.datasource-username", "");
+            String password = System.getProperty("loadtest.datasource-password", "");
+            if (postgres != null) {
+                postgres.start();
+                // Lets the driver send the seeding batches as multi-row inserts.
+                url = postgres.getJdbcUrl() + (postgres.getJdbcUrl().contains("?") ? "&" : "?")
+                        + "reWriteBatchedInserts=true";
+                username = postgres.getUsername();
+                password = postgres.getPassword();
+            }
+
+            try (ConfigurableApplicationContext app = start(url, username, password)) {
+                URI baseUri = URI.create("http://localhost:"
+                        + app.getEnvironment().getProperty("local.server.port") + "/api/products");
+                JdbcTemplate jdbcTemplate = app.getBean(JdbcTemplate.class);
+                long[] ids = ProductDataset.ensure(jdbcTemplate, products);
+
+                LoadGenerator generator = new LoadGenerator();
+                ProductWorkload workload = new ProductWorkload(ids, writePercent);
+                List<Measurement> results = new ArrayList<>();
+                for (int concurrency : levels) {
+                    Measurement result = Measurement.of(generator.run(concurrency + " clients", baseUri, workload,
+                            concurrency, warmup, duration));
+                    System.out.printf("%s: %.0f req/s, p99 %.2f ms, %d errors%n", result.name(),
+                            result.throughput(), result.p99Millis(), result.errors());
+                    results.add(result);
+                }
+
+                Measurement capacity = results.stream()
+                        .filter(result -> result.p99Millis() <= p99Target.toMillis()
+                                && result.errorRate() < MAX_ERROR_RATE)
+                        .max((a, b) -> Double.compare(a.throughput(), b.throughput()))
+                        .orElse(null);
+                Report report = new Report(database(jdbcTemplate), ids.length, writePercent, p99Target.toMillis(),
+                        Runtime.version().toString(), Runtime.getRuntime().availableProcessors(),
+                        Runtime.getRuntime().maxMemory() / (1024 * 1024), duration.toMillis() / 1000.0, results,
+                        capacity, export(baseUri));
+                write(report, baseline.isBlank() ? null : Path.of(baseline), reportDir);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String url, String username, String password) {
+        SpringApplication application = new SpringApplication(ProductsApiApplication.class);
+        // All load comes from one client; measure the service, not the limiter.
+        // Driver and dialect are detected from the database, so a throwaway
+        // H2 URL also works for a quick check of the harness itself.
+        return application.run("--server.port=0", "--logging.level.root=WARN",
+                "--products.rate-limit.enabled=false", "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + username, "--spring.datasource.password=" + password,
+                "--spring.datasource.driver-class-name=", "--spring.jpa.database-platform=");
+    }
+
+    private static String database(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData()
+                .getDatabaseProductName() + " " + connection.getMetaData().getDatabaseProductVersion());
+    }
+
+    /**
+     * Streams the whole catalog once; its cost grows with the table rather
+     * than with concurrency.
+     */
+    private static Export export(URI baseUri) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(baseUri + "/export")).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        long rows = 0;
+        long bytes = 0;
+        try (InputStream body = response.body()) {
+            byte[] buffer = new byte[64 * 1024];
+            for (int read = body.read(buffer); read != -1; read = body.read(buffer)) {
+                bytes += read;
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        rows++;
+                    }
+                }
+            }
+        }
+        return new Export(rows, bytes, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void write(Report report, Path baselinePath, Path reportDir) throws IOException {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Report baseline = baselinePath != null && Files.exists(baselinePath)
+                ? mapper.readValue(baselinePath.toFile(), Report.class)
+                : null;
+        String markdown = markdown(report, baseline);
+        System.out.println(markdown);
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("capacity.md"), markdown);
+        mapper.writeValue(reportDir.resolve("capacity.json").toFile(), report);
+    }
+
+    private static String markdown(Report report, Report baseline) {
+        Map<String, Measurement> previous = baseline == null
+                ? Map.of()
+                : baseline.levels().stream().collect(Collectors.toMap(Measurement::name, Function.identity()));
+        StringBuilder markdown = new StringBuilder()
+                .append("# Capacity report\n\n")
+                .append(report.database()).append(", ").append(report.products()).append(" products. Workload: ")
+                .append(100 - report.writePercent()).append("% reads / ").append(report.writePercent())
+                .append("% writes over the ProductController endpoints, ")
+                .append(String.format("%.0f", report.secondsPerLevel())).append("s measured per level. Java ")
+                .append(report.java()).append(", ").append(report.cpus()).append(" CPUs, ")
+                .append(report.maxHeapMegabytes()).append(" MB max heap.\n\n")
+                .append("| Clients | Requests | Errors | Req/s | p50 (ms) | p90 (ms) | p99 (ms) | max (ms) |")
+                .append(baseline == null ? "\n" : " Req/s vs baseline | p99 vs baseline |\n")
+                .append("|---|---:|---:|---:|---:|---:|---:|---:|")
+                .append(baseline == null ? "\n" : "---:|---:|\n");
+        for (Measurement level : report.levels()) {
+            markdown.append(row(level));
+            if (baseline != null) {
+                Measurement before = previous.get(level.name());
+                markdown.append(before == null
+                        ? " | |\n"
+                        : String.format(" %s | %s |%n", change(level.throughput(), before.throughput()),
+                                change(level.p99Millis(), before.p99Millis())));
+            } else {
+                markdown.append("\n");
+            }
+        }
+
+        Measurement capacity = report.capacity();
+        markdown.append("\n");
+        if (capacity == null) {
+            markdown.append(String.format("**Capacity:** no level kept p99 within %.0f ms with under 1%% errors.%n",
+                    report.p99TargetMillis()));
+        } else {
+            markdown.append(String.format("**Capacity:** %.0f req/s at %s, p99 %.2f ms (target %.0f ms).",
+                    capacity.throughput(), capacity.name(), capacity.p99Millis(), report.p99TargetMillis()));
+            if (baseline != null && baseline.capacity() != null) {
+                markdown.append(String.format(" Baseline: %.0f req/s at %s.", baseline.capacity().throughput(),
+                        baseline.capacity().name()));
+            }
+            markdown.append("\n");
+        }
+
+        Measurement detail = capacity != null ? capacity : report.levels().get(report.levels().size() - 1);
+        markdown.append("\n## Endpoints at ").append(detail.name()).append("\n\n")
+                .append("| Endpoint | Requests | Errors | Req/s | p50 (ms) | p90 (ms) | p99 (ms) | max (ms) |\n")
+                .append("|---|---:|---:|---:|---:|---:|---:|---:|\n");
+        for (Measurement endpoint : detail.endpoints()) {
+            markdown.append(row(endpoint)).append("\n");
+        }
+
+        Export export = report.export();
+        markdown.append(String.format("%n## Export%n%nGET /api/products/export: %d rows, %.1f MB in %.2f s "
+                + "(%.0f rows/s).%n", export.rows(), export.bytes() / (1024.0 * 1024), export.seconds(),
+                export.rows() / export.seconds()));
+        return markdown.toString();
+    }
+
+    private static String row(Measurement measurement) {
+        return String.format("| %s | %d | %d | %.0f | %.2f | %.2f | %.2f | %.2f |", measurement.name(),
+                measurement.requests(), measurement.errors(), measurement.throughput(), measurement.p50Millis(),
+                measurement.p90Millis(), measurement.p99Millis(), measurement.maxMillis());
+    }
+
+    private static String change(double current, double previous) {
+        return previous == 0 ? "n/a" : String.format("%+.1f%%", (current - previous) * 100 / previous);
+    }
+}
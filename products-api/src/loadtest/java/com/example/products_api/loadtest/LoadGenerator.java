@@ -0,0 +1,158 @@
+package com.example.products_api.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Closed-loop HTTP load: {@code concurrency} clients, each on its own virtual
+ * thread, send one request at a time and record its latency. Virtual client
+ * threads keep the generator itself from being the bottleneck. Latencies are
+ * also kept per endpoint, as named by the scenario.
+ */
+final class LoadGenerator {
+
+    /**
+     * Builds the next request for a client; called concurrently, so it must
+     * only use the random source it is given.
+     */
+    interface Scenario {
+        Call next(URI baseUri, SplittableRandom random);
+    }
+
+    /**
+     * A request and the endpoint it is reported under, e.g.
+     * {@code GET /api/products/{id}}.
+     */
+    record Call(String endpoint, HttpRequest request) {
+    }
+
+    record Result(String name, long requests, long errors, double seconds, long p50Micros, long p90Micros,
+            long p99Micros, long maxMicros, List<Result> endpoints) {
+
+        double throughput() {
+            return requests / seconds;
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    Result run(String name, URI baseUri, Scenario scenario, int concurrency, Duration warmup, Duration duration)
+            throws Exception {
+        measure(baseUri, scenario, concurrency, warmup);
+        Recorder[] recorders = measure(baseUri, scenario, concurrency, duration);
+
+        Map<String, List<Samples>> byEndpoint = new TreeMap<>();
+        List<Samples> all = new ArrayList<>();
+        for (Recorder recorder : recorders) {
+            recorder.samples.forEach((endpoint, samples) -> {
+                byEndpoint.computeIfAbsent(endpoint, key -> new ArrayList<>()).add(samples);
+                all.add(samples);
+            });
+        }
+        double seconds = duration.toMillis() / 1000.0;
+        List<Result> endpoints = new ArrayList<>(byEndpoint.size());
+        byEndpoint.forEach((endpoint, samples) -> endpoints.add(summarize(endpoint, samples, seconds, List.of())));
+        return summarize(name, all, seconds, endpoints);
+    }
+
+    private static Result summarize(String name, List<Samples> samples, double seconds, List<Result> endpoints) {
+        long errors = 0;
+        int total = 0;
+        for (Samples sample : samples) {
+            errors += sample.errors;
+            total += sample.count;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Samples sample : samples) {
+            System.arraycopy(sample.latencies, 0, latencies, offset, sample.count);
+            offset += sample.count;
+        }
+        Arrays.sort(latencies);
+        return new Result(name, total, errors, seconds, percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), latencies.length == 0 ? 0 : latencies[latencies.length - 1], endpoints);
+    }
+
+    private Recorder[] measure(URI baseUri, Scenario scenario, int concurrency, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        Recorder[] recorders = new Recorder[concurrency];
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                Recorder recorder = new Recorder();
+                recorders[i] = recorder;
+                SplittableRandom random = new SplittableRandom(i);
+                running.add(clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Call call = scenario.next(baseUri, random);
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(call.request(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            recorder.record(call.endpoint(), (System.nanoTime() - start) / 1000,
+                                    response.statusCode() >= 500);
+                        } catch (Exception e) {
+                            recorder.record(call.endpoint(), (System.nanoTime() - start) / 1000, true);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        }
+        return recorders;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    /**
+     * Samples of one client; only touched by that client's thread.
+     */
+    private static final class Recorder {
+        private final Map<String, Samples> samples = new HashMap<>();
+
+        void record(String endpoint, long micros, boolean error) {
+            samples.computeIfAbsent(endpoint, key -> new Samples()).record(micros, error);
+        }
+    }
+
+    private static final class Samples {
+        private long[] latencies = new long[64];
+        private int count;
+        private long errors;
+
+        void record(long micros, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = micros;
+            if (error) {
+                errors++;
+            }
+        }
+    }
+}
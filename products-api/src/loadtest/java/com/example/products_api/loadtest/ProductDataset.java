@@ -0,0 +1,103 @@
+package com.example.products_api.loadtest;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Deterministic product catalog for load tests: row {@code n} is always the
+ * same product, so runs of different builds read the same data. Rows are
+ * written through JDBC batches rather than the API, which would take far
+ * longer for a million products.
+ */
+final class ProductDataset {
+
+    static final String[] ADJECTIVES = { "Steel", "Wooden", "Compact", "Wireless", "Ergonomic", "Vintage",
+            "Portable", "Smart", "Classic", "Modular" };
+    static final String[] NOUNS = { "Lamp", "Chair", "Desk", "Speaker", "Monitor", "Keyboard", "Router", "Kettle",
+            "Backpack", "Camera", "Drone", "Blender" };
+
+    private static final long SEED = 42L;
+    private static final int BATCH_SIZE = 1_000;
+
+    // Each id takes a whole products_seq value, so blocks Hibernate allocates
+    // later (pooled-lo) never overlap the seeded ids.
+    private static final String INSERT = "INSERT INTO products (id, name, description, price, version, "
+            + "last_modified) VALUES (nextval('products_seq'), ?, ?, ?, 0, ?)";
+
+    private ProductDataset() {
+    }
+
+    /**
+     * Tops the table up to {@code size} products and returns the ids of all
+     * of them. Rows left by an earlier run against the same database count
+     * towards {@code size}.
+     */
+    static long[] ensure(JdbcTemplate jdbcTemplate, int size) {
+        long existing = jdbcTemplate.queryForObject("SELECT count(*) FROM products", Long.class);
+        if (existing < size) {
+            long start = System.nanoTime();
+            insert(jdbcTemplate, (int) existing, size);
+            System.out.printf("Seeded %d products in %.1fs%n", size - existing,
+                    (System.nanoTime() - start) / 1e9);
+            if (isPostgres(jdbcTemplate)) {
+                // Fresh statistics, as a long-lived table would have.
+                jdbcTemplate.execute("ANALYZE products");
+            }
+        }
+        LongStream.Builder ids = LongStream.builder();
+        jdbcTemplate.query("SELECT id FROM products", row -> {
+            ids.add(row.getLong(1));
+        });
+        return ids.build().toArray();
+    }
+
+    static BigDecimal price(SplittableRandom random) {
+        return BigDecimal.valueOf(random.nextInt(1, 1_000_000), 2);
+    }
+
+    static String name(SplittableRandom random, long number) {
+        return ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)] + " "
+                + number;
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, int from, int to) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        for (int batchStart = from; batchStart < to; batchStart += BATCH_SIZE) {
+            int first = batchStart;
+            int count = Math.min(BATCH_SIZE, to - batchStart);
+            jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    long number = first + i + 1L;
+                    SplittableRandom random = new SplittableRandom(SEED + number);
+                    statement.setString(1, name(random, number));
+                    statement.setString(2, "Load test product " + number + " with a realistic amount of text");
+                    statement.setBigDecimal(3, price(random));
+                    statement.setObject(4, now);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+            if ((batchStart + count) % 100_000 == 0) {
+                System.out.printf("  %d / %d products%n", batchStart + count, to);
+            }
+        }
+    }
+
+    private static boolean isPostgres(JdbcTemplate jdbcTemplate) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> connection
+                .getMetaData().getDatabaseProductName().equals("PostgreSQL")));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.products_api.loadtest;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.SplittableRandom;
+
+/**
+ * Mixed traffic over every {@code ProductController} endpoint except the
+ * export, which streams the whole catalog and is measured on its own. Reads
+ * and writes target random products of the seeded {@link ProductDataset};
+ * writes may hit ids an earlier delete removed, which answer 404 and do not
+ * count as errors.
+ * <p>
+ * Reads: 40% by id, 12% first listing pages, 6% deep pages, 8% price ranges,
+ * 8% cursor pages, 10% search, 10% {@code ?ids=}, 6% lookup. Writes: 33%
+ * create, 30% patch, 23% put, 4% delete and 4% / 4% / 2% batch create,
+ * update and delete.
+ */
+final class ProductWorkload implements LoadGenerator.Scenario {
+
+    private static final int BATCH_SIZE = 50;
+    private static final String[] SORT_FIELDS = { "name", "price", "id" };
+
+    private final long[] ids;
+    private final int writePercent;
+
+    ProductWorkload(long[] ids, int writePercent) {
+        this.ids = ids;
+        this.writePercent = writePercent;
+    }
+
+    @Override
+    public LoadGenerator.Call next(URI baseUri, SplittableRandom random) {
+        return random.nextInt(100) < writePercent ? write(baseUri, random) : read(baseUri, random);
+    }
+
+    private LoadGenerator.Call read(URI baseUri, SplittableRandom random) {
+        int pick = random.nextInt(100);
+        if (pick < 40) {
+            return get("GET /api/products/{id}", baseUri + "/" + randomId(random));
+        }
+        if (pick < 52) {
+            return get("GET /api/products (first pages)", baseUri + "?page=" + (random.nextInt(5) + 1)
+                    + "&size=20&sortBy=" + sortField(random));
+        }
+        if (pick < 58) {
+            return get("GET /api/products (deep pages)", baseUri + "?page=" + (random.nextInt(1_000) + 6)
+                    + "&size=20&count=cached&sortBy=" + sortField(random));
+        }
+        if (pick < 66) {
+            BigDecimal min = ProductDataset.price(random);
+            return get("GET /api/products?minPrice&maxPrice", baseUri + "?minPrice=" + min.toPlainString()
+                    + "&maxPrice=" + min.add(BigDecimal.TEN).toPlainString() + "&sortBy=price&size=20&count=none");
+        }
+        if (pick < 74) {
+            return get("GET /api/products?after", baseUri + "?after=&size=20&sortBy=" + sortField(random));
+        }
+        if (pick < 84) {
+            String noun = ProductDataset.NOUNS[random.nextInt(ProductDataset.NOUNS.length)];
+            return get("GET /api/products/search", baseUri + "/search?q=" + noun.toLowerCase() + "&size=20");
+        }
+        if (pick < 94) {
+            return get("GET /api/products?ids", baseUri + "?ids=" + idList(random, 20));
+        }
+        return new LoadGenerator.Call("POST /api/products/lookup", HttpRequest.newBuilder(URI.create(baseUri
+                + "/lookup"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("[" + idList(random, 100) + "]"))
+                .build());
+    }
+
+    private LoadGenerator.Call write(URI baseUri, SplittableRandom random) {
+        int pick = random.nextInt(100);
+        if (pick < 33) {
+            return send("POST /api/products", "POST", baseUri, product(random, null));
+        }
+        if (pick < 63) {
+            return send("PATCH /api/products/{id}", "PATCH", URI.create(baseUri + "/" + randomId(random)),
+                    "{\"price\":" + ProductDataset.price(random).toPlainString() + "}");
+        }
+        if (pick < 86) {
+            return send("PUT /api/products/{id}", "PUT", URI.create(baseUri + "/" + randomId(random)),
+                    product(random, null));
+        }
+        if (pick < 90) {
+            return new LoadGenerator.Call("DELETE /api/products/{id}",
+                    HttpRequest.newBuilder(URI.create(baseUri + "/" + randomId(random))).DELETE().build());
+        }
+        StringBuilder body = new StringBuilder("[");
+        if (pick < 98) {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                body.append(i == 0 ? "" : ",").append(product(random, pick < 94 ? null : randomId(random)));
+            }
+            body.append("]");
+            return pick < 94
+                    ? send("POST /api/products/batch", "POST", URI.create(baseUri + "/batch"), body.toString())
+                    : send("PUT /api/products/batch", "PUT", URI.create(baseUri + "/batch"), body.toString());
+        }
+        body.append(idList(random, BATCH_SIZE / 5)).append("]");
+        return send("DELETE /api/products/batch", "DELETE", URI.create(baseUri + "/batch"), body.toString());
+    }
+
+    private long randomId(SplittableRandom random) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private String idList(SplittableRandom random, int count) {
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            list.append(i == 0 ? "" : ",").append(randomId(random));
+        }
+        return list.toString();
+    }
+
+    private static String sortField(SplittableRandom random) {
+        return SORT_FIELDS[random.nextInt(SORT_FIELDS.length)];
+    }
+
+    private static String product(SplittableRandom random, Long id) {
+        long number = random.nextLong(1, 1_000_000_000L);
+        return "{" + (id == null ? "" : "\"id\":" + id + ",") + "\"name\":\""
+                + ProductDataset.name(random, number) + "\",\"description\":\"Written by the load test\",\"price\":"
+                + ProductDataset.price(random).toPlainString() + "}";
+    }
+
+    private static LoadGenerator.Call get(String endpoint, String uri) {
+        return new LoadGenerator.Call(endpoint, HttpRequest.newBuilder(URI.create(uri)).build());
+    }
+
+    private static LoadGenerator.Call send(String endpoint, String method, URI uri, String json) {
+        return new LoadGenerator.Call(endpoint, HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build());
+    }
+}
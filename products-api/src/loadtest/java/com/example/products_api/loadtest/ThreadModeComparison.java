@@ -0,0 +1,134 @@
+package com.example.products_api.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.products_api.ProductsApiApplication;
+import com.example.products_api.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs the same read-heavy workload against the service twice, once on
+ * Tomcat's platform thread pool and once with the {@code virtual-threads}
+ * profile, and writes a side-by-side report to
+ * {@code ${loadtest.report-dir}/thread-modes.md}.
+ * <p>
+ * By default the service uses the embedded H2 of the test profile, where
+ * queries barely block and both modes perform alike. Pass
+ * {@code -Dloadtest.datasource-url=jdbc:postgresql://...} (plus
+ * {@code -Dloadtest.datasource-username/password}) to compare against a real
+ * database, where JDBC waits dominate.
+ */
+public final class ThreadModeComparison {
+
+    private static final int SEED_PRODUCTS = 1_000;
+
+    private ThreadModeComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 400);
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s"));
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s"));
+        Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"));
+
+        LoadGenerator generator = new LoadGenerator();
+        List<LoadGenerator.Result> results = new ArrayList<>();
+        for (String mode : List.of("platform", "virtual-threads")) {
+            try (ConfigurableApplicationContext app = start(mode)) {
+                URI baseUri = URI.create("http://localhost:"
+                        + app.getEnvironment().getProperty("local.server.port") + "/api/products");
+                long[] ids = seed(baseUri);
+                results.add(generator.run(mode, baseUri, (uri, random) -> random.nextInt(4) == 0
+                        ? new LoadGenerator.Call("GET /api/products", HttpRequest.newBuilder(URI.create(uri
+                                + "?page=" + (random.nextInt(50) + 1) + "&size=20&count=cached")).build())
+                        : new LoadGenerator.Call("GET /api/products/{id}", HttpRequest.newBuilder(URI.create(uri
+                                + "/" + ids[random.nextInt(ids.length)])).build()),
+                        concurrency, warmup, duration));
+                app.getBean(ProductRepository.class).deleteAllInBatch();
+            }
+        }
+
+        String report = report(results, concurrency, duration);
+        System.out.println(report);
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("thread-modes.md"), report);
+    }
+
+    private static ConfigurableApplicationContext start(String mode) {
+        SpringApplication application = new SpringApplication(ProductsApiApplication.class);
+        List<String> profiles = new ArrayList<>();
+        String datasourceUrl = System.getProperty("loadtest.datasource-url", "");
+        if (datasourceUrl.isBlank()) {
+            profiles.add("test");
+        }
+        if (mode.equals("virtual-threads")) {
+            profiles.add("virtual-threads");
+        }
+        application.setAdditionalProfiles(profiles.toArray(String[]::new));
+
+        // All load comes from one client; measure the thread model, not the limiter.
+        List<String> args = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=WARN",
+                "--products.rate-limit.enabled=false"));
+        if (!datasourceUrl.isBlank()) {
+            args.add("--spring.datasource.url=" + datasourceUrl);
+            args.add("--spring.datasource.username=" + System.getProperty("loadtest.datasource-username", ""));
+            args.add("--spring.datasource.password=" + System.getProperty("loadtest.datasource-password", ""));
+        }
+        return application.run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Inserts the products through the batch endpoint and returns their ids.
+     */
+    private static long[] seed(URI baseUri) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 1; i <= SEED_PRODUCTS; i++) {
+            body.append("{\"name\":\"Product ").append(i)
+                    .append("\",\"description\":\"Load test product\",\"price\":").append(i).append(".5}\n");
+        }
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(baseUri + "/batch"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed: " + response.body());
+        }
+        JsonNode items = new ObjectMapper().readTree(response.body()).get("items");
+        long[] ids = new long[items.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = items.get(i).get("id").asLong();
+        }
+        return ids;
+    }
+
+    private static String report(List<LoadGenerator.Result> results, int concurrency, Duration duration) {
+        StringBuilder report = new StringBuilder()
+                .append("# Thread mode comparison\n\n")
+                .append("Workload: 75% GET /api/products/{id}, 25% GET /api/products?count=cached, ")
+                .append(concurrency).append(" concurrent clients, ").append(duration.toSeconds())
+                .append("s measured. Java ").append(Runtime.version()).append(", ")
+                .append(Runtime.getRuntime().availableProcessors()).append(" CPUs.\n\n")
+                .append("| Mode | Requests | Errors | Req/s | p50 (ms) | p90 (ms) | p99 (ms) | max (ms) |\n")
+                .append("|---|---:|---:|---:|---:|---:|---:|---:|\n");
+        for (LoadGenerator.Result result : results) {
+            report.append(String.format("| %s | %d | %d | %.0f | %.2f | %.2f | %.2f | %.2f |%n", result.name(),
+                    result.requests(), result.errors(), result.throughput(), result.p50Micros() / 1000.0,
+                    result.p90Micros() / 1000.0, result.p99Micros() / 1000.0, result.maxMicros() / 1000.0));
+        }
+        return report.toString();
+    }
+}
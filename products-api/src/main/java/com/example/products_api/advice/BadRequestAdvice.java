@@ -0,0 +1,40 @@
+package com.example.products_api.advice;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.example.products_api.exception.InvalidCountStrategyException;
+import com.example.products_api.exception.InvalidCursorException;
+import com.example.products_api.exception.InvalidExportFormatException;
+import com.example.products_api.exception.InvalidLookupException;
+import com.example.products_api.exception.InvalidPageSizeException;
+import com.example.products_api.exception.InvalidPriceException;
+import com.example.products_api.exception.InvalidSearchException;
+import com.example.products_api.exception.InvalidSortDirectionException;
+import com.example.products_api.exception.InvalidSortFieldException;
+import com.example.products_api.exception.InvalidWriteException;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class BadRequestAdvice {
+
+    @ExceptionHandler({
+            InvalidCursorException.class,
+            InvalidSearchException.class,
+            InvalidSortFieldException.class,
+            InvalidSortDirectionException.class,
+            InvalidPageSizeException.class,
+            InvalidLookupException.class,
+            InvalidPriceException.class,
+            InvalidCountStrategyException.class,
+            InvalidExportFormatException.class,
+            InvalidWriteException.class
+    })
+    public ResponseEntity<Map<String, String>> badRequestHandler(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("details", ex.getMessage()));
+    }
+}
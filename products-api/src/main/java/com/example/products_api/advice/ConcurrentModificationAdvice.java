@@ -0,0 +1,28 @@
+package com.example.products_api.advice;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.example.products_api.exception.PreconditionFailedException;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class ConcurrentModificationAdvice {
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, String>> preconditionFailedHandler(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(Map.of("details", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> optimisticLockingFailureHandler(
+            ObjectOptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("details", "Product with id " + ex.getIdentifier() + " was modified concurrently"));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.products_api.advice;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.example.products_api.exception.UnsupportedEndpointException;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class NotImplementedAdvice {
+
+    @ExceptionHandler(UnsupportedEndpointException.class)
+    public ResponseEntity<Map<String, String>> notImplementedHandler(UnsupportedEndpointException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED)
+                .body(Map.of("details", ex.getMessage()));
+    }
+}
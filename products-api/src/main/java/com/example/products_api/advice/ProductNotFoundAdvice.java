@@ -6,14 +6,15 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.example.products_api.exception.ProductNotFoundException;
+import com.example.products_api.exception.WriteNotFoundException;
 
 import java.util.Map;
 
 @RestControllerAdvice
 public class ProductNotFoundAdvice {
 
-    @ExceptionHandler(ProductNotFoundException.class)
-    public ResponseEntity<Map<String, String>> productNotFoundHandler(ProductNotFoundException ex) {
+    @ExceptionHandler({ ProductNotFoundException.class, WriteNotFoundException.class })
+    public ResponseEntity<Map<String, String>> productNotFoundHandler(RuntimeException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(Map.of("details", ex.getMessage()));
     }
@@ -0,0 +1,49 @@
+package com.example.products_api.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Loads for the async Caffeine caches that run on the calling thread: the
+ * caller that installed the pending future completes it, and every caller
+ * joins it. A synchronous Caffeine load would hold a map lock across the
+ * load instead.
+ */
+final class CallingThreadLoads {
+
+    private CallingThreadLoads() {
+    }
+
+    /**
+     * Completes {@code load} with the loader's result. A failure completes it
+     * exceptionally and is rethrown, since a future left incomplete would
+     * block every later caller for its keys.
+     */
+    static <T> void complete(CompletableFuture<T> load, Supplier<? extends T> loader) {
+        try {
+            load.complete(loader.get());
+        } catch (Throwable e) {
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for {@code result} and rethrows what its loader threw, rather
+     * than wrapped in a {@link CompletionException}.
+     */
+    static <T> T join(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
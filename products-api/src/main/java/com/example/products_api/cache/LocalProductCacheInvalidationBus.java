@@ -0,0 +1,18 @@
+package com.example.products_api.cache;
+
+import java.util.Collection;
+
+/**
+ * Single-replica bus: the local cache is already evicted by the writer, so
+ * there is nobody else to notify.
+ */
+public class LocalProductCacheInvalidationBus implements ProductCacheInvalidationBus {
+
+    @Override
+    public void publish(Collection<Long> ids) {
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+    }
+}
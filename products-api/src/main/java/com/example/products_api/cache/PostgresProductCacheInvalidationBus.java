@@ -0,0 +1,136 @@
+package com.example.products_api.cache;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Shares invalidations through PostgreSQL {@code LISTEN/NOTIFY}, which every
+ * replica already has access to. Listening uses its own dedicated connection
+ * so it never holds a connection from the request pool.
+ * <p>
+ * Each {@link #publish(Collection)} is one {@code pg_notify} whose payload is
+ * the comma-separated ids. When they do not fit PostgreSQL's 8000-byte
+ * payload limit the notification asks every replica to drop its whole cache
+ * instead, which still costs a single statement.
+ */
+public class PostgresProductCacheInvalidationBus implements ProductCacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresProductCacheInvalidationBus.class);
+
+    static final String CHANNEL = "product_cache_invalidation";
+    static final String INVALIDATE_ALL = "*";
+    private static final int MAX_PAYLOAD_LENGTH = 7999;
+    private static final int POLL_TIMEOUT_MILLIS = 5000;
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource listenDataSource;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresProductCacheInvalidationBus(JdbcTemplate jdbcTemplate, DataSource listenDataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listenDataSource = listenDataSource;
+    }
+
+    @Override
+    public void publish(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String payload = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        if (payload.length() > MAX_PAYLOAD_LENGTH) {
+            payload = INVALIDATE_ALL;
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "product-cache-invalidation");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        listenerThread.interrupt();
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = listenDataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Anything published while we were not listening is lost.
+                listeners.forEach(Listener::onInvalidateAll);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Product cache invalidation listener failed, reconnecting", e);
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        if (payload.equals(INVALIDATE_ALL)) {
+            listeners.forEach(Listener::onInvalidateAll);
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (String id : payload.split(",")) {
+                ids.add(Long.valueOf(id));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed product cache invalidation: {}", payload);
+            return;
+        }
+        listeners.forEach(listener -> listener.onInvalidate(ids));
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.products_api.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import com.example.products_api.entity.ProductEntity;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size- and TTL-bounded read-through cache of products by id. Entries are
+ * detached entities and must be treated as read-only by callers.
+ * <p>
+ * As a {@link MeterBinder} bean it publishes the {@code cache.*} metrics
+ * (hits, misses, evictions, size) under {@code cache=products}.
+ */
+public class ProductCache implements ProductCacheInvalidationBus.Listener, MeterBinder {
+
+    private final AsyncCache<Long, ProductEntity> cache;
+    private final ProductCacheInvalidationBus invalidationBus;
+
+    public ProductCache(long maximumSize, Duration ttl, ProductCacheInvalidationBus invalidationBus) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(this);
+    }
+
+    /**
+     * Returns the cached product, loading it on a miss. Concurrent misses for
+     * the same id share one load. A {@code null} from the loader is not cached.
+     * <p>
+     * The loader runs on the calling thread, outside any map lock: a
+     * synchronous Caffeine load would hold a monitor across the JDBC call and
+     * pin the carrier when running on virtual threads.
+     */
+    public ProductEntity get(Long id, Function<Long, ProductEntity> loader) {
+        CompletableFuture<ProductEntity> load = new CompletableFuture<>();
+        CompletableFuture<ProductEntity> product = cache.get(id, (key, executor) -> load);
+        if (product == load) {
+            CallingThreadLoads.complete(load, () -> loader.apply(id));
+        }
+        return CallingThreadLoads.join(product);
+    }
+
+    /**
+     * Returns the cached products among {@code ids} and loads the rest with a
+     * single call to {@code loader}, which receives only the misses. Ids the
+     * loader has no product for are left out of the result and not cached.
+     * Like {@link #get}, the loader runs on the calling thread.
+     */
+    public Map<Long, ProductEntity> getAll(Collection<Long> ids,
+            Function<Set<Long>, Map<Long, ProductEntity>> loader) {
+        CompletableFuture<Map<Long, ProductEntity>> load = new CompletableFuture<>();
+        Set<Long> misses = new HashSet<>();
+        CompletableFuture<Map<Long, ProductEntity>> products = cache.getAll(ids, (keys, executor) -> {
+            misses.addAll(keys);
+            return load;
+        });
+        if (!misses.isEmpty()) {
+            CallingThreadLoads.complete(load, () -> loader.apply(misses));
+        }
+        return CallingThreadLoads.join(products);
+    }
+
+    /**
+     * Returns the cached product without loading it, or {@code null} when it
+     * is not cached or still loading.
+     */
+    public ProductEntity getIfPresent(Long id) {
+        CompletableFuture<ProductEntity> product = cache.getIfPresent(id);
+        if (product == null || !product.isDone() || product.isCompletedExceptionally()) {
+            return null;
+        }
+        return product.join();
+    }
+
+    /**
+     * Evicts the product here and on every other replica. Call after the
+     * change is committed; a load still in flight is dropped rather than cached.
+     */
+    public void evict(Long id) {
+        cache.synchronous().invalidate(id);
+        invalidationBus.publish(id);
+    }
+
+    /**
+     * Like {@link #evict(Long)} for several products, announced to the other
+     * replicas as a single invalidation.
+     */
+    public void evictAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        cache.synchronous().invalidateAll(ids);
+        invalidationBus.publish(ids);
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache.synchronous(), "products", Tags.empty()).bindTo(registry);
+    }
+
+    @Override
+    public void onInvalidate(Long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    @Override
+    public void onInvalidate(Collection<Long> ids) {
+        cache.synchronous().invalidateAll(ids);
+    }
+
+    @Override
+    public void onInvalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+}
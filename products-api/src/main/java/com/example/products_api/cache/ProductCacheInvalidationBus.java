@@ -0,0 +1,41 @@
+package com.example.products_api.cache;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Second tier of the product cache: propagates invalidations between replicas
+ * so that a write on one pod evicts the entry everywhere.
+ */
+public interface ProductCacheInvalidationBus {
+
+    /**
+     * Announces that the product with the given id changed or was removed.
+     */
+    default void publish(Long id) {
+        publish(List.of(id));
+    }
+
+    /**
+     * Announces that the products with the given ids changed or were
+     * removed, as a single message however many ids there are.
+     */
+    void publish(Collection<Long> ids);
+
+    void subscribe(Listener listener);
+
+    interface Listener {
+
+        void onInvalidate(Long id);
+
+        default void onInvalidate(Collection<Long> ids) {
+            ids.forEach(this::onInvalidate);
+        }
+
+        /**
+         * Called when invalidations may have been missed, e.g. after the bus
+         * reconnects.
+         */
+        void onInvalidateAll();
+    }
+}
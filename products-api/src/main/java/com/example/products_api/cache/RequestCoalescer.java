@@ -0,0 +1,74 @@
+package com.example.products_api.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Single-flight for identical reads: concurrent calls with equal keys share
+ * one execution and its result, which stays shareable for {@code window}
+ * after it completes. Failures are never shared beyond the calls already
+ * waiting on them.
+ * <p>
+ * As a {@link MeterBinder} bean it publishes
+ * {@code products.coalescing.requests} and
+ * {@code products.coalescing.collapsed}, the calls answered without
+ * executing.
+ */
+public class RequestCoalescer implements MeterBinder {
+
+    private final AsyncCache<Object, Object> flights;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    public RequestCoalescer(long maximumSize, Duration window) {
+        this.flights = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(window)
+                .buildAsync();
+    }
+
+    /**
+     * Runs {@code action} on the calling thread, unless a call with an equal
+     * key is in flight or completed within the window, in which case its
+     * result is returned instead. Keys must be immutable.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> action) {
+        requests.increment();
+        CompletableFuture<Object> execution = new CompletableFuture<>();
+        CompletableFuture<Object> result = flights.get(key, (k, executor) -> execution);
+        if (result == execution) {
+            CallingThreadLoads.complete(execution, action);
+        } else {
+            collapsed.increment();
+        }
+        return (T) CallingThreadLoads.join(result);
+    }
+
+    /**
+     * Stops sharing every current result. Calls already waiting still get
+     * theirs; later calls execute again. Call after a write is committed.
+     */
+    public void invalidateAll() {
+        flights.synchronous().invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("products.coalescing.requests", requests, LongAdder::sum)
+                .description("Reads submitted for coalescing")
+                .register(registry);
+        FunctionCounter.builder("products.coalescing.collapsed", collapsed, LongAdder::sum)
+                .description("Reads answered by sharing another call's result")
+                .register(registry);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.products_api.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.http.MediaType;
+
+import com.example.products_api.service.CountStrategy;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Fully serialized listing pages, so a hot page is written to the response
+ * as stored bytes without querying, mapping or encoding it again. Only the
+ * first {@code maxPage} pages are cached, and size-bounded admission keeps
+ * the most requested of those.
+ * <p>
+ * Every write to the catalog clears the cache, here and, through the
+ * invalidation bus, on the other replicas; the TTL bounds what is missed,
+ * such as creates on other replicas or a page rendered from a lagging read
+ * replica.
+ * <p>
+ * As a {@link MeterBinder} bean it publishes the {@code cache.*} metrics
+ * under {@code cache=pages}.
+ */
+public class SerializedPageCache implements ProductCacheInvalidationBus.Listener, MeterBinder {
+
+    /**
+     * Everything that selects the bytes of a listing page.
+     */
+    public record Key(int page, int size, String sortBy, String sortDir, CountStrategy count, MediaType mediaType) {
+    }
+
+    /**
+     * A rendered page; {@code body} must not be modified. {@code link} is the
+     * page's {@code Link} header, or {@code null}.
+     */
+    public record SerializedPage(byte[] body, MediaType contentType, String eTag, String link) {
+    }
+
+    private final AsyncCache<Key, SerializedPage> cache;
+    private final int maxPage;
+
+    public SerializedPageCache(long maximumSize, Duration ttl, int maxPage, ProductCacheInvalidationBus invalidationBus) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.maxPage = maxPage;
+        invalidationBus.subscribe(this);
+    }
+
+    public boolean isCacheable(int page) {
+        return page >= 1 && page <= maxPage;
+    }
+
+    /**
+     * Returns the stored page, rendering it on a miss. Concurrent misses for
+     * the same key share one rendering, on the calling thread; a rendering
+     * still in flight when the cache is cleared is not stored. The renderer
+     * runs inside the cache, whose failed loads are logged as warnings, so
+     * validate request parameters before calling.
+     */
+    public SerializedPage get(Key key, Supplier<SerializedPage> renderer) {
+        CompletableFuture<SerializedPage> render = new CompletableFuture<>();
+        CompletableFuture<SerializedPage> page = cache.get(key, (k, executor) -> render);
+        if (page == render) {
+            CallingThreadLoads.complete(render, renderer);
+        }
+        return CallingThreadLoads.join(page);
+    }
+
+    /**
+     * Call after a write is committed.
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache.synchronous(), "pages", Tags.empty()).bindTo(registry);
+    }
+
+    @Override
+    public void onInvalidate(Long id) {
+        invalidateAll();
+    }
+
+    @Override
+    public void onInvalidate(Collection<Long> ids) {
+        invalidateAll();
+    }
+
+    @Override
+    public void onInvalidateAll() {
+        invalidateAll();
+    }
+}
@@ -1,16 +1,17 @@
 package com.example.products_api.config;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.example.products_api.mapper.ProductMapper;
+
 @Configuration
 public class ApplicationConfig {
 	@Bean
-	public ModelMapper modelMapper() {
-		return new ModelMapper();
+	public ProductMapper productMapper() {
+		return new ProductMapper();
 	}
 
 	@Bean
@@ -18,8 +19,8 @@ public class ApplicationConfig {
 		return new WebMvcConfigurer() {
 			@Override
 			public void addCorsMappings(CorsRegistry registry) {
-				registry.addMapping("/**").allowedOrigins("*").allowedMethods("GET", "POST", "PUT", "DELETE")
-						.maxAge(3600);
+				registry.addMapping("/**").allowedOrigins("*").allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")
+						.exposedHeaders("ETag", "Last-Modified", "Link", "Retry-After").maxAge(3600);
 			}
 
 		};
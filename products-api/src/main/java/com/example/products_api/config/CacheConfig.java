@@ -0,0 +1,60 @@
+package com.example.products_api.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import com.example.products_api.cache.LocalProductCacheInvalidationBus;
+import com.example.products_api.cache.PostgresProductCacheInvalidationBus;
+import com.example.products_api.cache.ProductCache;
+import com.example.products_api.cache.ProductCacheInvalidationBus;
+import com.example.products_api.cache.RequestCoalescer;
+import com.example.products_api.cache.SerializedPageCache;
+
+@Configuration
+@Profile("!reactive")
+public class CacheConfig {
+	@Bean
+	public ProductCache productCache(@Value("${products.cache.maximum-size:10000}") long maximumSize,
+			@Value("${products.cache.ttl:10m}") Duration ttl, ProductCacheInvalidationBus invalidationBus) {
+		return new ProductCache(maximumSize, ttl, invalidationBus);
+	}
+
+	@Bean
+	public RequestCoalescer pageCoalescer(@Value("${products.coalescing.window:100ms}") Duration window) {
+		return new RequestCoalescer(1000, window);
+	}
+
+	@Bean
+	public SerializedPageCache serializedPageCache(@Value("${products.page-cache.maximum-size:256}") long maximumSize,
+			@Value("${products.page-cache.ttl:10s}") Duration ttl,
+			@Value("${products.page-cache.max-page:5}") int maxPage, ProductCacheInvalidationBus invalidationBus) {
+		return new SerializedPageCache(maximumSize, ttl, maxPage, invalidationBus);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "products.cache.invalidation", havingValue = "local", matchIfMissing = true)
+	public ProductCacheInvalidationBus localProductCacheInvalidationBus() {
+		return new LocalProductCacheInvalidationBus();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "products.cache.invalidation", havingValue = "postgres")
+	public ProductCacheInvalidationBus postgresProductCacheInvalidationBus(JdbcTemplate jdbcTemplate,
+			DataSourceProperties dataSourceProperties) {
+		// The listener keeps its connection open forever, so it must not come from the pool.
+		DataSource listenDataSource = dataSourceProperties.initializeDataSourceBuilder()
+				.type(SimpleDriverDataSource.class)
+				.build();
+		return new PostgresProductCacheInvalidationBus(jdbcTemplate, listenDataSource);
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.products_api.config;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import com.example.products_api.ratelimit.AdaptiveConcurrencyLimiter;
+import com.example.products_api.ratelimit.ClientRateLimiter;
+import com.example.products_api.ratelimit.RateLimitFilter;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "products.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+	@Bean
+	public ClientRateLimiter clientRateLimiter(
+			@Value("${products.rate-limit.requests-per-second:100}") double requestsPerSecond,
+			@Value("${products.rate-limit.burst-seconds:2}") double burstSeconds,
+			@Value("${products.rate-limit.quotas:}") List<String> quotas) {
+		Map<String, Double> quotasByClient = new HashMap<>();
+		parseQuotas(quotas).forEach((key, rate) -> quotasByClient.put("key:" + key, rate));
+		return new ClientRateLimiter(requestsPerSecond, quotasByClient, burstSeconds, 100_000);
+	}
+
+	@Bean
+	public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+			@Value("${products.load-shedding.initial-limit:50}") int initialLimit,
+			@Value("${products.load-shedding.min-limit:5}") int minLimit,
+			@Value("${products.load-shedding.max-limit:400}") int maxLimit,
+			@Value("${products.load-shedding.latency-tolerance:2.0}") double tolerance) {
+		return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance);
+	}
+
+	@Bean
+	public RateLimitFilter rateLimitFilter(ClientRateLimiter clientRateLimiter,
+			AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter,
+			@Value("${products.rate-limit.api-keys:}") List<String> apiKeys,
+			@Value("${products.rate-limit.quotas:}") List<String> quotas) {
+		// Keys with a quota are issued keys too
+		Set<String> knownKeys = new HashSet<>();
+		apiKeys.stream().map(String::strip).filter(key -> !key.isEmpty()).forEach(knownKeys::add);
+		knownKeys.addAll(parseQuotas(quotas).keySet());
+		return new RateLimitFilter(clientRateLimiter, adaptiveConcurrencyLimiter, knownKeys);
+	}
+
+	/** Per API key overrides, as key:requests-per-second. */
+	private static Map<String, Double> parseQuotas(List<String> quotas) {
+		Map<String, Double> quotasByKey = new HashMap<>();
+		for (String quota : quotas) {
+			if (quota.isBlank()) {
+				continue;
+			}
+			int separator = quota.lastIndexOf(':');
+			String key = separator < 0 ? "" : quota.substring(0, separator).strip();
+			if (key.isEmpty()) {
+				throw new IllegalStateException("Invalid products.rate-limit.quotas entry '" + quota
+						+ "', expected key:requests-per-second");
+			}
+			double rate;
+			try {
+				rate = Double.parseDouble(quota.substring(separator + 1).strip());
+			} catch (NumberFormatException e) {
+				throw new IllegalStateException("Invalid products.rate-limit.quotas entry '" + quota
+						+ "', expected key:requests-per-second", e);
+			}
+			if (!Double.isFinite(rate) || rate <= 0) {
+				throw new IllegalStateException("Invalid products.rate-limit.quotas entry '" + quota
+						+ "', requests per second must be finite and greater than 0");
+			}
+			quotasByKey.put(key, rate);
+		}
+		return quotasByKey;
+	}
+}
@@ -0,0 +1,30 @@
+package com.example.products_api.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+	// Tomcat is on the classpath for the servlet stack and would otherwise win.
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+
+	@Bean
+	public WebFluxConfigurer reactiveCorsConfigurer() {
+		return new WebFluxConfigurer() {
+			@Override
+			public void addCorsMappings(CorsRegistry registry) {
+				registry.addMapping("/**").allowedOrigins("*").allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")
+						.exposedHeaders("ETag", "Last-Modified", "Retry-After").maxAge(3600);
+			}
+
+		};
+	}
+}
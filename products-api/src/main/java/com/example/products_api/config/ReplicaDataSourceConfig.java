@@ -0,0 +1,93 @@
+package com.example.products_api.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.example.products_api.datasource.ReadYourWritesFilter;
+import com.example.products_api.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends read-only transactions to the replicas in
+ * {@code products.datasource.replica-urls} and everything else to the
+ * primary. The lazy proxy defers fetching the connection until the first
+ * statement, when the transaction's read-only flag is already known. It is
+ * left out of the JDBC observations ({@code jdbc.excluded-data-source-bean-names}):
+ * their wrapper reads the connection metadata on checkout, which would fetch
+ * the primary connection before the flag is set. The pools underneath are
+ * still observed.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "products.datasource.replica-urls")
+public class ReplicaDataSourceConfig {
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	@Bean
+	public ReplicaRoutingDataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+			DataSourceProperties properties, ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${products.datasource.replica-urls}") List<String> replicaUrls,
+			@Value("${products.datasource.replica-pool-size:10}") int poolSize,
+			@Value("${products.datasource.max-replica-lag:5s}") Duration maxLag,
+			@Value("${products.datasource.replica-check-interval:5s}") Duration checkInterval) {
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		for (int i = 0; i < replicaUrls.size(); i++) {
+			HikariDataSource replica = properties.initializeDataSourceBuilder()
+					.type(HikariDataSource.class)
+					.url(replicaUrls.get(i))
+					.build();
+			replica.setPoolName("replica-" + i);
+			replica.setMaximumPoolSize(poolSize);
+			replica.setReadOnly(true);
+			// Fail over to the primary quickly instead of queueing on a dead replica;
+			// ReplicaRoutingDataSource retries the read there.
+			replica.setConnectionTimeout(2000);
+			replica.setInitializationFailTimeout(-1);
+			meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(
+					new MicrometerMetricsTrackerFactory(registry)));
+			replicas.put(replica.getPoolName(), replica);
+		}
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag);
+		routing.afterPropertiesSet();
+		routing.start(checkInterval);
+		return routing;
+	}
+
+	@Bean
+	@Primary
+	public DataSource readWriteDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+			@Qualifier("replicaDataSource") DataSource replicaDataSource) {
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+		dataSource.setReadOnlyDataSource(replicaDataSource);
+		return dataSource;
+	}
+
+	@Bean
+	public ReadYourWritesFilter readYourWritesFilter(
+			@Value("${products.datasource.read-your-writes-window:10s}") Duration window) {
+		return new ReadYourWritesFilter(window);
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.products_api.controller;
+
+import java.net.URI;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.products_api.dto.ProductDTO;
+import com.example.products_api.dto.WriteStatus;
+import com.example.products_api.exception.WriteNotFoundException;
+import com.example.products_api.mapper.ProductMapper;
+import com.example.products_api.service.AsyncWriteService;
+import com.example.products_api.writes.WriteCommand;
+
+/**
+ * Asynchronous variants of create and update, chosen per request with
+ * {@code Prefer: respond-async}. The write is acknowledged with 202 once it
+ * is durable in the write log; its outcome is polled at the
+ * {@code Location} returned.
+ */
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(name = "products.async-writes.enabled", havingValue = "true")
+@RequestMapping("/api/products")
+public class AsyncProductWriteController {
+
+    private static final String RESPOND_ASYNC = "Prefer=respond-async";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final AsyncWriteService asyncWriteService;
+    private final ProductMapper productMapper;
+
+    public AsyncProductWriteController(AsyncWriteService asyncWriteService, ProductMapper productMapper) {
+        this.asyncWriteService = asyncWriteService;
+        this.productMapper = productMapper;
+    }
+
+    @PostMapping(headers = RESPOND_ASYNC)
+    public ResponseEntity<WriteStatus> createProduct(@RequestBody ProductDTO productDTO,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return accepted(asyncWriteService.submit(WriteCommand.Operation.CREATE, null,
+                productMapper.toEntity(productDTO), idempotencyKey));
+    }
+
+    @PutMapping(path = "/{id}", headers = RESPOND_ASYNC)
+    public ResponseEntity<WriteStatus> updateProduct(@PathVariable Long id, @RequestBody ProductDTO productDTO,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return accepted(asyncWriteService.submit(WriteCommand.Operation.UPDATE, id,
+                productMapper.toEntity(productDTO), idempotencyKey));
+    }
+
+    @GetMapping("/writes/{trackingId}")
+    public WriteStatus getWriteStatus(@PathVariable String trackingId) {
+        return asyncWriteService.getStatus(trackingId)
+                .orElseThrow(() -> new WriteNotFoundException(trackingId));
+    }
+
+    private static ResponseEntity<WriteStatus> accepted(WriteStatus status) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/products/writes/" + status.trackingId()))
+                .body(status);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.products_api.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.products_api.dto.ProductDTO;
+import com.example.products_api.mapper.ProductMapper;
+import com.example.products_api.service.ProductChangeService;
+import com.example.products_api.utils.ChangeFeedResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/products/changes")
+public class ProductChangeController {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_WAIT_SECONDS = 60;
+
+    private final ProductChangeService productChangeService;
+    private final ProductMapper productMapper;
+
+    public ProductChangeController(ProductChangeService productChangeService, ProductMapper productMapper) {
+        this.productChangeService = productChangeService;
+        this.productMapper = productMapper;
+    }
+
+    /**
+     * Products created, updated or deleted after position {@code since}
+     * (0 for everything). With {@code wait} seconds, an empty result is held
+     * open until a change arrives or the wait runs out (long polling).
+     */
+    @GetMapping
+    public CompletableFuture<ChangeFeedResponse<ProductDTO>> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestParam(defaultValue = "0") int wait) {
+        return productChangeService.awaitChanges(since, Math.clamp(limit, 1, MAX_LIMIT),
+                Duration.ofSeconds(Math.clamp(wait, 0, MAX_WAIT_SECONDS)))
+                .thenApply(changes -> changes.map(productMapper::toDto));
+    }
+}
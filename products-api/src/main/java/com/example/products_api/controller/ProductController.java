@@ -1,55 +1,304 @@
 package com.example.products_api.controller;
 
-import org.modelmapper.ModelMapper;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.example.products_api.cache.SerializedPageCache;
+import com.example.products_api.cache.SerializedPageCache.SerializedPage;
+import com.example.products_api.datasource.ReadYourWrites;
+import com.example.products_api.dto.BatchItemResult;
+import com.example.products_api.dto.BatchReport;
 import com.example.products_api.dto.ProductDTO;
+import com.example.products_api.dto.ProductLookupItem;
+import com.example.products_api.dto.ProductLookupResponse;
+import com.example.products_api.dto.ProductPatch;
+import com.example.products_api.dto.ProductVersion;
 import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.exception.InvalidLookupException;
+import com.example.products_api.mapper.ProductMapper;
+import com.example.products_api.service.CountStrategy;
 import com.example.products_api.service.ProductService;
+import com.example.products_api.utils.BatchLine;
+import com.example.products_api.utils.CursorCodec;
+import com.example.products_api.utils.CursorPagedResponse;
+import com.example.products_api.utils.ETags;
+import com.example.products_api.utils.PageLimits;
 import com.example.products_api.utils.PagedResponse;
+import com.example.products_api.utils.PriceRange;
+import com.example.products_api.utils.ProductSort;
+import com.example.products_api.utils.ExportFormat;
+import com.example.products_api.utils.ProductExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/products")
 public class ProductController {
 
+    /**
+     * Items handed to the service per transaction. A multiple of
+     * {@code hibernate.jdbc.batch_size} so every JDBC batch is full.
+     */
+    private static final int BATCH_CHUNK_SIZE = 500;
+
+    /**
+     * Formats listing pages are stored in by the {@link SerializedPageCache},
+     * in the order they are offered for a wildcard {@code Accept}.
+     */
+    private static final List<MediaType> PAGE_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+
+    private static final Type PAGE_TYPE = ResolvableType.forClassWithGenerics(PagedResponse.class, ProductDTO.class)
+            .getType();
+
     private final ProductService productService;
-    private final ModelMapper modelMapper;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final SerializedPageCache pageCache;
+    private final List<HttpMessageConverter<?>> messageConverters;
+    private final ContentNegotiationManager contentNegotiationManager;
 
-    public ProductController(ProductService productService, ModelMapper modelMapper) {
+    public ProductController(ProductService productService, ProductMapper productMapper, ObjectMapper objectMapper,
+            SerializedPageCache pageCache, HttpMessageConverters messageConverters,
+            ContentNegotiationManager contentNegotiationManager) {
         this.productService = productService;
-        this.modelMapper = modelMapper;
+        this.productMapper = productMapper;
+        this.objectMapper = objectMapper;
+        this.pageCache = pageCache;
+        this.messageConverters = messageConverters.getConverters();
+        this.contentNegotiationManager = contentNegotiationManager;
     }
 
+    /**
+     * The first pages are answered from the {@link SerializedPageCache} as
+     * stored bytes, with the ETag they were rendered with. Clients pinned to
+     * the primary after a write bypass it, as do price-filtered listings.
+     * {@code minPrice} and {@code maxPrice} are inclusive and may be given
+     * alone.
+     * <p>
+     * Unfiltered pages with a successor carry a {@code Link} with
+     * {@code rel="next"} to the following page in cursor mode, so clients
+     * walking the whole listing switch to keyset reads after the first page.
+     */
     @GetMapping
-    public ResponseEntity<PagedResponse<ProductDTO>> getProducts(
+    public ResponseEntity<?> getProducts(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            NativeWebRequest request) {
+        CountStrategy countStrategy = CountStrategy.from(count);
+        PriceRange priceRange = PriceRange.of(minPrice, maxPrice);
+        MediaType mediaType = pageCache.isCacheable(page) && !priceRange.isBounded() && !ReadYourWrites.isPinned()
+                ? negotiatePageMediaType(request)
+                : null;
+        if (mediaType == null) {
+            PagedResponse<ProductEntity> products = productService
+                    .getProducts(page, size, sortBy, sortDir, countStrategy, priceRange);
+            // Cursor mode has no price filter to carry the range over.
+            String link = priceRange.isBounded() ? null : nextLink(products, size, sortBy, sortDir);
+            return withLink(ResponseEntity.ok(), link)
+                    .eTag(pageETag(products))
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(products.map(productMapper::toDto));
+        }
+        // Client errors are answered here rather than failing a cached load.
+        PageLimits.checkSize(size);
+        ProductSort.of(sortBy, sortDir);
+        SerializedPage serializedPage = pageCache.get(
+                new SerializedPageCache.Key(page, size, sortBy, sortDir, countStrategy, mediaType), () -> {
+                    PagedResponse<ProductEntity> products = productService
+                            .getProducts(page, size, sortBy, sortDir, countStrategy);
+                    return serializePage(products.map(productMapper::toDto), pageETag(products),
+                            nextLink(products, size, sortBy, sortDir), mediaType);
+                });
+        return withLink(ResponseEntity.ok(), serializedPage.link())
+                .eTag(serializedPage.eTag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(serializedPage.contentType())
+                .body(serializedPage.body());
+    }
+
+    /**
+     * Resolves a comma-separated list of ids in one request. Items come back
+     * in request order, with a {@code NOT_FOUND} marker for unknown ids.
+     */
+    @GetMapping(params = { "ids", "!after" })
+    public ProductLookupResponse lookupProducts(@RequestParam List<Long> ids) {
+        return lookup(ids);
+    }
+
+    /**
+     * A lookup is not a page, so it cannot be combined with a cursor.
+     */
+    @GetMapping(params = { "ids", "after" })
+    public ProductLookupResponse lookupProductsAfter() {
+        throw new InvalidLookupException("ids cannot be combined with after");
+    }
+
+    /**
+     * Same as {@code GET ?ids=}, for id lists too long for a URL.
+     */
+    @PostMapping(path = "/lookup", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ProductLookupResponse lookupProductsPost(@RequestBody List<Long> ids) {
+        return lookup(ids);
+    }
+
+    /**
+     * Cursor (keyset) mode, selected by the presence of {@code after}. Pass an
+     * empty {@code after} for the first page and the returned
+     * {@code nextCursor} for the following ones; cost does not grow with depth.
+     */
+    @GetMapping(params = { "after", "!ids" })
+    public ResponseEntity<CursorPagedResponse<ProductDTO>> getProductsAfter(
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        CursorPagedResponse<ProductEntity> products = productService.getProductsAfter(after, size, sortBy, sortDir);
+        return withLink(ResponseEntity.ok(), nextLink(products.nextCursor(), size, sortBy, sortDir))
+                .eTag(ETags.of(products.content(), products.nextCursor()))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(products.map(productMapper::toDto));
+    }
+
+    /**
+     * Case-insensitive substring search over name and description, optionally
+     * filtered by price. Totals are not counted; use {@code hasNext} to page.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PagedResponse<ProductDTO>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir) {
-        PagedResponse<ProductDTO> productDTOs = productService.getProducts(page, size, sortBy, sortDir)
-                .map(product -> modelMapper.map(product, ProductDTO.class));
+        PagedResponse<ProductDTO> productDTOs = productService
+                .searchProducts(q, minPrice, maxPrice, page, size, sortBy, sortDir)
+                .map(productMapper::toDto);
         return ResponseEntity.ok(productDTOs);
     }
 
+    /**
+     * Streams the whole catalog as NDJSON (default) or CSV straight to the
+     * response while the database cursor is read. Any other {@code format}
+     * is answered with 400 before the export starts.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> {
+            ProductExportWriter writer = exportFormat.writer(out, objectMapper);
+            try {
+                productService.exportProducts(product -> {
+                    try {
+                        writer.write(productMapper.toDto(product));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.finish();
+        };
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportFormat.filename())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ProductDTO createProduct(@RequestBody ProductDTO productDTO) {
-        ProductEntity createdProduct = productService.createProduct(modelMapper.map(productDTO, ProductEntity.class));
-        return modelMapper.map(createdProduct, ProductDTO.class);
+        ProductEntity createdProduct = productService.createProduct(productMapper.toEntity(productDTO));
+        return productMapper.toDto(createdProduct);
     }
 
+    /**
+     * Conditional requests ({@code If-None-Match}, {@code If-Modified-Since})
+     * are answered with 304 from the version alone, without loading the product.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProduct(@PathVariable Long id) {
-        return ResponseEntity.ok(modelMapper.map(productService.getProductById(id), ProductDTO.class));
+    public ResponseEntity<ProductDTO> getProduct(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            ProductVersion version = productService.getProductVersion(id);
+            if (request.checkNotModified(ETags.of(version.version()), toEpochMilli(version.lastModified()))) {
+                return null;
+            }
+        }
+        return withValidators(productService.getProductById(id));
     }
 
+    /**
+     * With {@code If-Match}, the update only applies if the product still has
+     * that ETag; otherwise it is rejected with 412.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<ProductDTO> updateProduct(@PathVariable Long id, @RequestBody ProductDTO productDTO) {
-        ProductEntity updatedProduct = productService.updateProduct(id,
-                modelMapper.map(productDTO, ProductEntity.class));
-        return ResponseEntity.ok(modelMapper.map(updatedProduct, ProductDTO.class));
+    public ResponseEntity<ProductDTO> updateProduct(@PathVariable Long id, @RequestBody ProductDTO productDTO,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductEntity updatedProduct = productService.updateProduct(id, productMapper.toEntity(productDTO),
+                ETags.expectedVersion(id, ifMatch));
+        return withValidators(updatedProduct);
+    }
+
+    /**
+     * Partial update: only the fields present in the body change. Honours
+     * {@code If-Match} like PUT.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ProductDTO> patchProduct(@PathVariable Long id, @RequestBody ProductPatch patch,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withValidators(productService.patchProduct(id, patch, ETags.expectedVersion(id, ifMatch)));
     }
 
     @DeleteMapping("/{id}")
@@ -57,4 +306,248 @@ public class ProductController {
     public void deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
     }
-}
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchReport createProducts(@RequestBody List<ProductDTO> productDTOs) {
+        return runBatch(productDTOs.stream().map(BatchLine::of).iterator(), this::createChunk);
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BatchReport createProducts(InputStream body) {
+        return runBatch(BatchLine.readNdjson(body, objectMapper.readerFor(ProductDTO.class)), this::createChunk);
+    }
+
+    @PutMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchReport updateProducts(@RequestBody List<ProductDTO> productDTOs) {
+        return runBatch(productDTOs.stream().map(BatchLine::of).iterator(), this::updateChunk);
+    }
+
+    @PutMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BatchReport updateProducts(InputStream body) {
+        return runBatch(BatchLine.readNdjson(body, objectMapper.readerFor(ProductDTO.class)), this::updateChunk);
+    }
+
+    @DeleteMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchReport deleteProducts(@RequestBody List<Long> ids) {
+        return runBatch(ids.stream().map(BatchLine::of).iterator(), productService::deleteProducts);
+    }
+
+    @DeleteMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BatchReport deleteProducts(InputStream body) {
+        return runBatch(BatchLine.readNdjson(body, objectMapper.readerFor(Long.class)),
+                productService::deleteProducts);
+    }
+
+    private ResponseEntity<ProductDTO> withValidators(ProductEntity product) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(ETags.of(product.getVersion()))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT);
+        if (product.getLastModified() != null) {
+            response.lastModified(product.getLastModified());
+        }
+        return response.body(productMapper.toDto(product));
+    }
+
+    private ProductLookupResponse lookup(List<Long> ids) {
+        Map<Long, ProductEntity> products = productService.getProductsByIds(ids);
+        List<ProductLookupItem> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductEntity product = products.get(id);
+            items.add(product == null
+                    ? ProductLookupItem.notFound(id)
+                    : ProductLookupItem.found(id, productMapper.toDto(product)));
+        }
+        return ProductLookupResponse.of(items);
+    }
+
+    /**
+     * {@code Link} to the page after the last product of {@code products} in
+     * cursor mode, or {@code null} on the last page.
+     */
+    private static String nextLink(PagedResponse<ProductEntity> products, int size, String sortBy, String sortDir) {
+        if (!products.hasNext() || products.content().isEmpty()) {
+            return null;
+        }
+        ProductEntity last = products.content().get(products.content().size() - 1);
+        return nextLink(CursorCodec.encode(ProductSort.keys(sortBy, last)), size, sortBy, sortDir);
+    }
+
+    private static String nextLink(String cursor, int size, String sortBy, String sortDir) {
+        if (cursor == null) {
+            return null;
+        }
+        String next = UriComponentsBuilder.fromPath("/api/products")
+                .queryParam("after", cursor)
+                .queryParam("size", size)
+                .queryParam("sortBy", sortBy)
+                .queryParam("sortDir", sortDir)
+                .encode()
+                .toUriString();
+        return "<" + next + ">; rel=\"next\"";
+    }
+
+    private static ResponseEntity.BodyBuilder withLink(ResponseEntity.BodyBuilder response, String link) {
+        return link == null ? response : response.header(HttpHeaders.LINK, link);
+    }
+
+    private static String pageETag(PagedResponse<ProductEntity> products) {
+        return ETags.of(products.content(), products.totalElements(), products.hasNext());
+    }
+
+    /**
+     * The cacheable format the client prefers, or {@code null} to leave
+     * negotiation, and any 406, to Spring MVC.
+     */
+    private MediaType negotiatePageMediaType(NativeWebRequest request) {
+        try {
+            for (MediaType accepted : contentNegotiationManager.resolveMediaTypes(request)) {
+                if (accepted.getQualityValue() == 0) {
+                    continue;
+                }
+                for (MediaType candidate : PAGE_MEDIA_TYPES) {
+                    if (accepted.isCompatibleWith(candidate)) {
+                        return candidate;
+                    }
+                }
+            }
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // Unparseable Accept header: not cacheable.
+        }
+        return null;
+    }
+
+    /**
+     * Encodes the page with the converter Spring MVC would pick for
+     * {@code mediaType}, so cached and uncached responses are byte-identical.
+     */
+    @SuppressWarnings("unchecked")
+    private SerializedPage serializePage(PagedResponse<ProductDTO> page, String eTag, String link,
+            MediaType mediaType) {
+        for (HttpMessageConverter<?> converter : messageConverters) {
+            if (converter instanceof GenericHttpMessageConverter<?> genericConverter
+                    && genericConverter.canWrite(PAGE_TYPE, PagedResponse.class, mediaType)) {
+                BufferedOutputMessage output = new BufferedOutputMessage();
+                try {
+                    ((GenericHttpMessageConverter<Object>) genericConverter).write(page, PAGE_TYPE, mediaType,
+                            output);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return new SerializedPage(output.body.toByteArray(), output.headers.getContentType(), eTag,
+                        link);
+            }
+        }
+        throw new IllegalStateException("No message converter for " + mediaType);
+    }
+
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    private static long toEpochMilli(Instant instant) {
+        return instant == null ? -1 : instant.toEpochMilli();
+    }
+
+    private List<BatchItemResult> createChunk(List<ProductDTO> productDTOs) {
+        return productService.createProducts(productDTOs.stream()
+                .map(productMapper::toEntity)
+                .toList());
+    }
+
+    private List<BatchItemResult> updateChunk(List<ProductDTO> productDTOs) {
+        return productService.updateProducts(productDTOs.stream()
+                .map(productMapper::toEntity)
+                .toList());
+    }
+
+    /**
+     * Feeds the items to {@code operation} in chunks of {@link #BATCH_CHUNK_SIZE},
+     * one transaction each. A chunk the database rejects is retried item by
+     * item, so only the offending items fail; earlier chunks stay committed.
+     */
+    private <T> BatchReport runBatch(Iterator<BatchLine<T>> lines,
+            Function<List<T>, List<BatchItemResult>> operation) {
+        List<BatchItemResult> results = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        List<Integer> chunkIndexes = new ArrayList<>(BATCH_CHUNK_SIZE);
+        int index = 0;
+        while (lines.hasNext()) {
+            BatchLine<T> line = lines.next();
+            if (line.error() != null) {
+                results.add(BatchItemResult.failed(index, null, line.error()));
+            } else {
+                chunk.add(line.value());
+                chunkIndexes.add(index);
+            }
+            index++;
+            if (chunk.size() == BATCH_CHUNK_SIZE) {
+                applyChunk(chunk, chunkIndexes, operation, results);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk, chunkIndexes, operation, results);
+        }
+        results.sort(Comparator.comparingInt(BatchItemResult::index));
+        return BatchReport.of(results);
+    }
+
+    /**
+     * Applies the chunk in one transaction. If the database rejects it, the
+     * items are applied again one per transaction, so only the rejected ones
+     * fail; when the database itself is failing every item is failed at once.
+     */
+    private <T> void applyChunk(List<T> chunk, List<Integer> chunkIndexes,
+            Function<List<T>, List<BatchItemResult>> operation, List<BatchItemResult> results) {
+        try {
+            for (BatchItemResult result : operation.apply(chunk)) {
+                results.add(result.withIndex(chunkIndexes.get(result.index())));
+            }
+        } catch (DataAccessException e) {
+            if (chunk.size() == 1 || isTransient(e)) {
+                String error = e.getMostSpecificCause().getMessage();
+                for (Integer chunkIndex : chunkIndexes) {
+                    results.add(BatchItemResult.failed(chunkIndex, null, error));
+                }
+            } else {
+                for (int i = 0; i < chunk.size(); i++) {
+                    applyAlone(chunk.get(i), chunkIndexes.get(i), operation, results);
+                }
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    private <T> void applyAlone(T item, int index, Function<List<T>, List<BatchItemResult>> operation,
+            List<BatchItemResult> results) {
+        try {
+            for (BatchItemResult result : operation.apply(List.of(item))) {
+                results.add(result.withIndex(index));
+            }
+        } catch (DataAccessException e) {
+            results.add(BatchItemResult.failed(index, null, e.getMostSpecificCause().getMessage()));
+        }
+    }
+
+    /**
+     * Whether {@code e} is a failure of the database rather than of the
+     * items, so applying them one by one would fail the same way.
+     */
+    private static boolean isTransient(DataAccessException e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+}
\ No newline at end of file
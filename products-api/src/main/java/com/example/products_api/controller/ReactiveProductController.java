@@ -0,0 +1,196 @@
+package com.example.products_api.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.products_api.dto.ProductDTO;
+import com.example.products_api.dto.ProductLookupItem;
+import com.example.products_api.dto.ProductLookupResponse;
+import com.example.products_api.dto.ProductPatch;
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.exception.InvalidLookupException;
+import com.example.products_api.exception.UnsupportedEndpointException;
+import com.example.products_api.mapper.ProductMapper;
+import com.example.products_api.service.CountStrategy;
+import com.example.products_api.service.ReactiveProductService;
+import com.example.products_api.utils.ETags;
+import com.example.products_api.utils.PagedResponse;
+import com.example.products_api.utils.PriceRange;
+
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebFlux implementation of the {@link ProductController} contract for the
+ * {@code reactive} profile. Listing, lookups and single-product CRUD behave as
+ * on the servlet stack, ETags and {@code If-Match} included. Cursor paging,
+ * search, export and the batch endpoints are only served by the servlet stack
+ * and answer 501 here.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/products")
+public class ReactiveProductController {
+
+    private final ReactiveProductService productService;
+    private final ProductMapper productMapper;
+
+    public ReactiveProductController(ReactiveProductService productService, ProductMapper productMapper) {
+        this.productService = productService;
+        this.productMapper = productMapper;
+    }
+
+    /**
+     * {@code minPrice} and {@code maxPrice} are inclusive and may be given
+     * alone, as on the servlet stack.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<PagedResponse<ProductDTO>>> getProducts(
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        return productService.getProducts(page, size, sortBy, sortDir, CountStrategy.from(count),
+                PriceRange.of(minPrice, maxPrice))
+                .map(products -> ResponseEntity.ok()
+                        .eTag(ETags.of(products.content(), products.totalElements(), products.hasNext()))
+                        .cacheControl(CacheControl.noCache())
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .body(products.map(productMapper::toDto)));
+    }
+
+    /**
+     * Resolves a comma-separated list of ids in one request. Items come back
+     * in request order, with a {@code NOT_FOUND} marker for unknown ids.
+     */
+    @GetMapping(params = { "ids", "!after" })
+    public Mono<ProductLookupResponse> lookupProducts(@RequestParam List<Long> ids) {
+        return lookup(ids);
+    }
+
+    /**
+     * A lookup is not a page, so it cannot be combined with a cursor.
+     */
+    @GetMapping(params = { "ids", "after" })
+    public Mono<ProductLookupResponse> lookupProductsAfter() {
+        return Mono.error(new InvalidLookupException("ids cannot be combined with after"));
+    }
+
+    /**
+     * Same as {@code GET ?ids=}, for id lists too long for a URL.
+     */
+    @PostMapping(path = "/lookup", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ProductLookupResponse> lookupProductsPost(@RequestBody List<Long> ids) {
+        return lookup(ids);
+    }
+
+    @GetMapping(params = { "after", "!ids" })
+    public Mono<Void> getProductsAfter() {
+        return unsupported("Cursor paging");
+    }
+
+    @GetMapping("/search")
+    public Mono<Void> searchProducts() {
+        return unsupported("Search");
+    }
+
+    @GetMapping("/export")
+    public Mono<Void> exportProducts() {
+        return unsupported("Export");
+    }
+
+    @RequestMapping(path = "/batch", method = { RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE })
+    public Mono<Void> batchProducts() {
+        return unsupported("Batch writes");
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<ProductDTO> createProduct(@RequestBody ProductDTO productDTO) {
+        return productService.createProduct(productMapper.toEntity(productDTO))
+                .map(productMapper::toDto);
+    }
+
+    /**
+     * Conditional requests ({@code If-None-Match}, {@code If-Modified-Since})
+     * are answered with 304 by WebFlux from the validators set here.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductDTO>> getProduct(@PathVariable Long id) {
+        return productService.getProductById(id)
+                .map(this::withValidators);
+    }
+
+    /**
+     * With {@code If-Match}, the update only applies if the product still has
+     * that ETag; otherwise it is rejected with 412.
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ProductDTO>> updateProduct(@PathVariable Long id, @RequestBody ProductDTO productDTO,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.defer(() -> productService.updateProduct(id, productMapper.toEntity(productDTO),
+                ETags.expectedVersion(id, ifMatch)))
+                .map(this::withValidators);
+    }
+
+    /**
+     * Partial update: only the fields present in the body change. Honours
+     * {@code If-Match} like PUT.
+     */
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<ProductDTO>> patchProduct(@PathVariable Long id, @RequestBody ProductPatch patch,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.defer(() -> productService.patchProduct(id, patch, ETags.expectedVersion(id, ifMatch)))
+                .map(this::withValidators);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteProduct(@PathVariable Long id) {
+        return productService.deleteProduct(id);
+    }
+
+    private ResponseEntity<ProductDTO> withValidators(ProductEntity product) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(ETags.of(product.getVersion()))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT);
+        if (product.getLastModified() != null) {
+            response.lastModified(product.getLastModified());
+        }
+        return response.body(productMapper.toDto(product));
+    }
+
+    private Mono<ProductLookupResponse> lookup(List<Long> ids) {
+        return productService.getProductsByIds(ids)
+                .map(products -> ProductLookupResponse.of(items(ids, products)));
+    }
+
+    private List<ProductLookupItem> items(List<Long> ids, Map<Long, ProductEntity> products) {
+        List<ProductLookupItem> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductEntity product = products.get(id);
+            items.add(product == null
+                    ? ProductLookupItem.notFound(id)
+                    : ProductLookupItem.found(id, productMapper.toDto(product)));
+        }
+        return items;
+    }
+
+    private static Mono<Void> unsupported(String feature) {
+        return Mono.error(new UnsupportedEndpointException(
+                feature + " is only available on the servlet stack, not in the reactive profile"));
+    }
+}
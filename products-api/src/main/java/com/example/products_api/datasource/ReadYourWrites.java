@@ -0,0 +1,43 @@
+package com.example.products_api.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread as needing to read from the primary, either
+ * because its client has just written or because the result outlives the
+ * request (and a stale replica row must not be kept).
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean pinned = pin();
+        try {
+            return action.get();
+        } finally {
+            release(pinned);
+        }
+    }
+
+    static boolean pin() {
+        if (isPinned()) {
+            return false;
+        }
+        PINNED.set(Boolean.TRUE);
+        return true;
+    }
+
+    static void release(boolean pinned) {
+        if (pinned) {
+            PINNED.remove();
+        }
+    }
+}
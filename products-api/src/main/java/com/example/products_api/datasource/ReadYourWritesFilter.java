@@ -0,0 +1,64 @@
+package com.example.products_api.datasource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Read-your-writes stickiness: a mutating request sets a short-lived cookie,
+ * and requests carrying it read from the primary until it expires, so a
+ * client never reads its own write back from a lagging replica.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "products-read-primary";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final int windowSeconds;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.windowSeconds = (int) Math.max(1, window.toSeconds());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            Cookie cookie = new Cookie(COOKIE_NAME, "1");
+            cookie.setMaxAge(windowSeconds);
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        } else if (!hasCookie(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean pinned = ReadYourWrites.pin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.release(pinned);
+        }
+    }
+
+    private static boolean hasCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
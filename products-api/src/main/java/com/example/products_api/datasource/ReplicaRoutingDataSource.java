@@ -0,0 +1,186 @@
+package com.example.products_api.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Read-only target behind the lazy connection proxy: spreads connections
+ * round-robin over the replicas that passed their last health check and are
+ * within {@code maxLag} of the primary, and falls back to the primary when
+ * none is, or when the current thread is pinned by {@link ReadYourWrites}.
+ * A replica that fails to hand out a connection is skipped until its next
+ * health check, and that read is retried on the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    // Idle primaries keep the last replay timestamp old, so only measure lag
+    // while the replica still has received WAL left to apply.
+    private static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END""";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Duration maxLag;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-health");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.primary = primary;
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * Runs the first check synchronously, so traffic only reaches replicas
+     * known to be usable, then repeats it every {@code interval}.
+     */
+    public void start(Duration interval) {
+        checkReplicas();
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ReadYourWrites.isPinned() || replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.usable) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionSource source) throws SQLException {
+        Object key = determineCurrentLookupKey();
+        for (Replica replica : replicas) {
+            if (replica.name.equals(key)) {
+                try {
+                    return source.connect(replica.dataSource);
+                } catch (SQLException e) {
+                    replica.usable = false;
+                    log.warn("Replica {} failed to provide a connection, reading from the primary until its next "
+                            + "health check", replica.name, e);
+                }
+            }
+        }
+        return source.connect(primary);
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean usable;
+            try {
+                long lagMillis = lagMillis(replica.dataSource);
+                usable = lagMillis <= maxLag.toMillis();
+                if (!usable && replica.usable) {
+                    log.warn("Replica {} is {} ms behind the primary, reading from the primary instead",
+                            replica.name, lagMillis);
+                }
+            } catch (SQLException | RuntimeException e) {
+                usable = false;
+                if (replica.usable) {
+                    log.warn("Replica {} failed its health check, reading from the primary instead", replica.name, e);
+                }
+            }
+            if (usable && !replica.usable) {
+                log.info("Replica {} is healthy, routing reads to it", replica.name);
+            }
+            replica.usable = usable;
+        }
+    }
+
+    private static long lagMillis(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                if (!connection.isValid(1)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                return 0;
+            }
+            try (Statement statement = connection.createStatement();
+                    ResultSet result = statement.executeQuery(POSTGRES_LAG_QUERY)) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Could not close replica {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean usable;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
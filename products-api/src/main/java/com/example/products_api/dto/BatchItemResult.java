@@ -0,0 +1,24 @@
+package com.example.products_api.dto;
+
+/**
+ * Outcome of one item of a batch request. {@code index} is the item's
+ * position in the request body (array element or NDJSON line).
+ */
+public record BatchItemResult(int index, Long id, Status status, String error) {
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, NOT_FOUND, FAILED
+    }
+
+    public static BatchItemResult of(int index, Long id, Status status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+
+    public static BatchItemResult failed(int index, Long id, String error) {
+        return new BatchItemResult(index, id, Status.FAILED, error);
+    }
+
+    public BatchItemResult withIndex(int newIndex) {
+        return new BatchItemResult(newIndex, id, status, error);
+    }
+}
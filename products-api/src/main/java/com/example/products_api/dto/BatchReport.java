@@ -0,0 +1,14 @@
+package com.example.products_api.dto;
+
+import java.util.List;
+
+public record BatchReport(int succeeded, int failed, List<BatchItemResult> items) {
+
+    public static BatchReport of(List<BatchItemResult> items) {
+        int failed = (int) items.stream()
+                .filter(item -> item.status() == BatchItemResult.Status.FAILED
+                        || item.status() == BatchItemResult.Status.NOT_FOUND)
+                .count();
+        return new BatchReport(items.size() - failed, failed, items);
+    }
+}
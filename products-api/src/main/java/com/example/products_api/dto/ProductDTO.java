@@ -1,15 +1,17 @@
 package com.example.products_api.dto;
 
+import java.math.BigDecimal;
+
 public class ProductDTO {
     private Long id;
     private String name;
     private String description;
-    private double price;
+    private BigDecimal price;
 
     public ProductDTO() {
     }
 
-    public ProductDTO(Long id, String name, String description, double price) {
+    public ProductDTO(Long id, String name, String description, BigDecimal price) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -28,7 +30,7 @@ public class ProductDTO {
         return description;
     }
 
-    public double getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
@@ -44,7 +46,7 @@ public class ProductDTO {
         this.description = description;
     }
 
-    public void setPrice(double price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
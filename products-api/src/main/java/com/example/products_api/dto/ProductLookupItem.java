@@ -0,0 +1,20 @@
+package com.example.products_api.dto;
+
+/**
+ * One requested id of a lookup, at its position in the request.
+ * {@code product} is null when the id does not exist.
+ */
+public record ProductLookupItem(Long id, Status status, ProductDTO product) {
+
+    public enum Status {
+        FOUND, NOT_FOUND
+    }
+
+    public static ProductLookupItem found(Long id, ProductDTO product) {
+        return new ProductLookupItem(id, Status.FOUND, product);
+    }
+
+    public static ProductLookupItem notFound(Long id) {
+        return new ProductLookupItem(id, Status.NOT_FOUND, null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.products_api.dto;
+
+import java.util.List;
+
+public record ProductLookupResponse(int found, int missing, List<ProductLookupItem> items) {
+
+    public static ProductLookupResponse of(List<ProductLookupItem> items) {
+        int missing = (int) items.stream()
+                .filter(item -> item.status() == ProductLookupItem.Status.NOT_FOUND)
+                .count();
+        return new ProductLookupResponse(items.size() - missing, missing, items);
+    }
+}
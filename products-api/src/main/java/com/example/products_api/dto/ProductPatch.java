@@ -0,0 +1,9 @@
+package com.example.products_api.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Body of a partial update. Fields left null keep their current value.
+ */
+public record ProductPatch(String name, String description, BigDecimal price) {
+}
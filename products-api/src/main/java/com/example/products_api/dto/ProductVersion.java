@@ -0,0 +1,10 @@
+package com.example.products_api.dto;
+
+import java.time.Instant;
+
+/**
+ * Validators of a product for conditional requests, read without the row's
+ * content.
+ */
+public record ProductVersion(Long version, Instant lastModified) {
+}
@@ -0,0 +1,16 @@
+package com.example.products_api.dto;
+
+/**
+ * State of a write accepted asynchronously, looked up by its tracking id.
+ * {@code productId} is known once a create is applied.
+ */
+public record WriteStatus(String trackingId, Status status, Long productId, String error) {
+
+    public enum Status {
+        PENDING, APPLIED, FAILED
+    }
+
+    public static WriteStatus pending(String trackingId, Long productId) {
+        return new WriteStatus(trackingId, Status.PENDING, productId, null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.products_api.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+
+/**
+ * One entry of the product change log. Ids come from a pooled sequence, so
+ * recording a batch of changes costs no extra round trips. The position
+ * clients resume from is assigned once the entry is committed, in commit
+ * order; it is {@code null} until then.
+ */
+@Entity
+@Table(name = "product_changes")
+public class ProductChangeEntity {
+
+    public enum Type {
+        UPSERT, DELETE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_changes_seq")
+    @SequenceGenerator(name = "product_changes_seq", sequenceName = "product_changes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    private Long position;
+
+    public ProductChangeEntity() {
+    }
+
+    public ProductChangeEntity(Long productId, Type type, Instant changedAt) {
+        this.productId = productId;
+        this.type = type;
+        this.changedAt = changedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public Long getPosition() {
+        return position;
+    }
+
+    public void setPosition(Long position) {
+        this.position = position;
+    }
+}
@@ -1,35 +1,58 @@
 package com.example.products_api.entity;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Set;
+
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import jakarta.annotation.Nonnull;
 import jakarta.persistence.*;
 
+// The relational @Table and @Id map the same class for R2DBC in the reactive
+// profile; JPA ignores them.
 @Entity
 @Table(name = "products")
+@org.springframework.data.relational.core.mapping.Table("products")
 @EntityListeners(AuditingEntityListener.class)
 public class ProductEntity {
 
+    /**
+     * Fields listings may be sorted by. Each has a {@code (field, id)} index,
+     * so sorted pages are read in index order instead of sorting the table.
+     */
+    public static final Set<String> SORTABLE_FIELDS = Set.of("id", "name", "price");
+
+    // A pooled sequence lets Hibernate assign ids without a round trip per row,
+    // which IDENTITY cannot do, so inserts can be sent as JDBC batches.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Nonnull
     @Column(nullable = false)
     private String name;
 
-    @Nonnull
-    @Column(nullable = false)
     private String description;
 
     @Nonnull
-    @Column(nullable = false)
-    private double price;
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal price;
+
+    // Drives optimistic locking and the ETag of the product.
+    @Version
+    private Long version;
+
+    @LastModifiedDate
+    private Instant lastModified;
 
     public ProductEntity() {
     }
 
-    public ProductEntity(String name, String description, double price) {
+    public ProductEntity(String name, String description, BigDecimal price) {
         this.name = name;
         this.description = description;
         this.price = price;
@@ -59,14 +82,30 @@ public class ProductEntity {
         this.description = description;
     }
 
-    public double getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(double price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
     @Override
     public String toString() {
         return "Product{" +
@@ -74,6 +113,7 @@ public class ProductEntity {
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", price=" + price +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.example.products_api.entity;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Persistable;
+
+import com.example.products_api.dto.WriteStatus;
+
+import jakarta.persistence.*;
+
+/**
+ * Outcome of an asynchronous write, stored in the same transaction that
+ * applies it. Its presence is what makes replaying the write log after a
+ * crash apply each write once, and the unique idempotency key what rejects
+ * duplicates submitted later.
+ */
+@Entity
+@Table(name = "product_writes")
+public class ProductWriteEntity implements Persistable<String> {
+
+    @Id
+    @Column(length = 36)
+    private String trackingId;
+
+    @Column(unique = true)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private WriteStatus.Status status;
+
+    private Long productId;
+
+    private String error;
+
+    @Column(nullable = false)
+    private Instant completedAt;
+
+    // Rows are only ever inserted, so save() must not look for an existing one.
+    @Transient
+    private boolean isNew = true;
+
+    public ProductWriteEntity() {
+    }
+
+    public ProductWriteEntity(String trackingId, String idempotencyKey, WriteStatus.Status status, Long productId,
+            String error, Instant completedAt) {
+        this.trackingId = trackingId;
+        this.idempotencyKey = idempotencyKey;
+        this.status = status;
+        this.productId = productId;
+        this.error = error;
+        this.completedAt = completedAt;
+    }
+
+    @Override
+    public String getId() {
+        return trackingId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public WriteStatus.Status getStatus() {
+        return status;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public WriteStatus toStatus() {
+        return new WriteStatus(trackingId, status, productId, error);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.products_api.exception;
+
+public class InvalidCountStrategyException extends RuntimeException {
+
+    public InvalidCountStrategyException(String value, String allowedValues) {
+        super("Unknown count strategy " + value + ", allowed values are " + allowedValues);
+    }
+
+}
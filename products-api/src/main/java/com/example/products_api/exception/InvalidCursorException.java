@@ -0,0 +1,9 @@
+package com.example.products_api.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor) {
+        super("Invalid cursor " + cursor);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.example.products_api.exception;
+
+public class InvalidExportFormatException extends RuntimeException {
+
+    public InvalidExportFormatException(String format, String allowedFormats) {
+        super("Unknown export format " + format + ", allowed formats are " + allowedFormats);
+    }
+
+}
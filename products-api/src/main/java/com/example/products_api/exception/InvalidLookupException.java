@@ -0,0 +1,9 @@
+package com.example.products_api.exception;
+
+public class InvalidLookupException extends RuntimeException {
+
+    public InvalidLookupException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.example.products_api.exception;
+
+public class InvalidPageSizeException extends RuntimeException {
+
+    public InvalidPageSizeException(int size, int maxSize) {
+        super("Page size must be between 1 and " + maxSize + ", got " + size);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.example.products_api.exception;
+
+public class InvalidPriceException extends RuntimeException {
+
+    public InvalidPriceException(String message) {
+        super(message);
+    }
+
+}
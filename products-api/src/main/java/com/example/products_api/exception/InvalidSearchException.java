@@ -0,0 +1,9 @@
+package com.example.products_api.exception;
+
+public class InvalidSearchException extends RuntimeException {
+
+    public InvalidSearchException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.example.products_api.exception;
+
+public class InvalidSortDirectionException extends RuntimeException {
+
+    public InvalidSortDirectionException(String direction) {
+        super("Cannot sort " + direction + ", directions are asc and desc");
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.example.products_api.exception;
+
+import java.util.Set;
+
+public class InvalidSortFieldException extends RuntimeException {
+
+    public InvalidSortFieldException(String field, Set<String> sortableFields) {
+        super("Cannot sort by " + field + ", sortable fields are " + sortableFields);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.example.products_api.exception;
+
+public class InvalidWriteException extends RuntimeException {
+
+    public InvalidWriteException(String message) {
+        super(message);
+    }
+
+}
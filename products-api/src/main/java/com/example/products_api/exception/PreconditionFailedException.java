@@ -0,0 +1,9 @@
+package com.example.products_api.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(Long id) {
+        super("Product with id " + id + " has been modified");
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.example.products_api.exception;
+
+public class UnsupportedEndpointException extends RuntimeException {
+
+    public UnsupportedEndpointException(String message) {
+        super(message);
+    }
+
+}
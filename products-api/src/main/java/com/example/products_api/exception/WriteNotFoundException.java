@@ -0,0 +1,9 @@
+package com.example.products_api.exception;
+
+public class WriteNotFoundException extends RuntimeException {
+
+    public WriteNotFoundException(String trackingId) {
+        super("Could not find write with tracking id " + trackingId);
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.example.products_api.health;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Part of the readiness group: reports the replica out of service while more
+ * than {@code products.health.pool.max-waiting} requests are queued for a
+ * connection, so the load balancer stops adding to a saturated pool.
+ */
+@Component("pool")
+@Profile("!reactive")
+public class ConnectionPoolHealthIndicator implements HealthIndicator {
+
+    private final DataSource dataSource;
+    private final int maxWaiting;
+
+    public ConnectionPoolHealthIndicator(DataSource dataSource,
+            @Value("${products.health.pool.max-waiting:10}") int maxWaiting) {
+        this.dataSource = dataSource;
+        this.maxWaiting = maxWaiting;
+    }
+
+    @Override
+    public Health health() {
+        HikariPoolMXBean pool;
+        try {
+            pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        } catch (SQLException e) {
+            return Health.unknown().withDetail("reason", "Not a Hikari pool").build();
+        }
+        if (pool == null) {
+            return Health.unknown().withDetail("reason", "Pool not started").build();
+        }
+        int waiting = pool.getThreadsAwaitingConnection();
+        return (waiting > maxWaiting ? Health.outOfService() : Health.up())
+                .withDetail("active", pool.getActiveConnections())
+                .withDetail("idle", pool.getIdleConnections())
+                .withDetail("total", pool.getTotalConnections())
+                .withDetail("waiting", waiting)
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.products_api.mapper;
+
+import com.example.products_api.dto.ProductDTO;
+import com.example.products_api.entity.ProductEntity;
+
+/**
+ * Field-by-field mapping between {@link ProductEntity} and {@link ProductDTO}.
+ * Plain getter/setter calls, so there is no reflection or type-map lookup on
+ * the request path; new fields must be added here explicitly.
+ */
+public class ProductMapper {
+
+    public ProductDTO toDto(ProductEntity product) {
+        return new ProductDTO(product.getId(), product.getName(), product.getDescription(), product.getPrice());
+    }
+
+    public ProductEntity toEntity(ProductDTO productDTO) {
+        ProductEntity product = new ProductEntity(productDTO.getName(), productDTO.getDescription(),
+                productDTO.getPrice());
+        product.setId(productDTO.getId());
+        return product;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.products_api.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Caps requests in flight at a limit that adapts to latency (AIMD): the
+ * limit grows by one while responses stay within {@code tolerance} times the
+ * baseline latency and the limit is actually being used, and shrinks by a
+ * tenth, at most once per round trip, when they get slower. Requests over
+ * the limit are shed instead of queueing for a database connection.
+ * <p>
+ * The baseline is the lowest recent latency; it drifts up slowly so a lasting
+ * change in the workload becomes the new normal.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong baselineNanos = new AtomicLong(Long.MAX_VALUE);
+    // As if the last decrease was long ago, so the first slow response counts.
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(System.nanoTime() - TimeUnit.HOURS.toNanos(1));
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = new AtomicInteger(Math.clamp(initialLimit, minLimit, maxLimit));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends a request admitted by {@link #tryAcquire()}. Pass a negative
+     * latency for requests that say nothing about load, like long polls.
+     */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        if (latencyNanos >= 0) {
+            adjust(latencyNanos, current);
+        }
+    }
+
+    private void adjust(long latencyNanos, int inFlightAtRelease) {
+        long baseline = baselineNanos.updateAndGet(
+                previous -> latencyNanos < previous ? latencyNanos : previous + (latencyNanos - previous) / 256);
+        if (latencyNanos > baseline * tolerance) {
+            long now = System.nanoTime();
+            long last = lastDecreaseNanos.get();
+            if (now - last > latencyNanos && lastDecreaseNanos.compareAndSet(last, now)) {
+                limit.updateAndGet(current -> Math.max(minLimit, current - Math.max(1, current / 10)));
+            }
+        } else if (inFlightAtRelease * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    public int limit() {
+        return limit.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("products.concurrency.limit", limit, AtomicInteger::get)
+                .description("Current adaptive limit of requests in flight")
+                .register(registry);
+        Gauge.builder("products.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .description("Requests in flight")
+                .register(registry);
+        FunctionCounter.builder("products.requests.rejected", rejected, LongAdder::sum)
+                .tag("reason", "overload")
+                .description("Requests shed with 503 because the concurrency limit was reached")
+                .register(registry);
+    }
+}
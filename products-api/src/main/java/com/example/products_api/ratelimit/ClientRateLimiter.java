@@ -0,0 +1,74 @@
+package com.example.products_api.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * One {@link TokenBucket} per client. Clients with an entry in
+ * {@code quotas} get that many requests per second, the rest the default;
+ * every bucket holds {@code burstSeconds} worth of requests. Idle clients'
+ * buckets are dropped, which is the same as a full bucket. Rates and the
+ * burst must be finite and positive: a zero rate would overflow the bucket
+ * arithmetic and let every request through.
+ */
+public class ClientRateLimiter implements MeterBinder {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final double defaultPermitsPerSecond;
+    private final Map<String, Double> quotas;
+    private final double burstSeconds;
+    private final LongAdder rejected = new LongAdder();
+
+    public ClientRateLimiter(double defaultPermitsPerSecond, Map<String, Double> quotas, double burstSeconds,
+            long maximumClients) {
+        requirePositive("Requests per second", defaultPermitsPerSecond);
+        requirePositive("Burst seconds", burstSeconds);
+        quotas.forEach((client, permitsPerSecond) -> requirePositive("Quota of " + client, permitsPerSecond));
+        this.defaultPermitsPerSecond = defaultPermitsPerSecond;
+        this.quotas = Map.copyOf(quotas);
+        this.burstSeconds = burstSeconds;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfterAccess(Duration.ofSeconds((long) Math.ceil(burstSeconds) + 60))
+                .build();
+    }
+
+    /**
+     * @return 0 when {@code client} may proceed, otherwise the nanoseconds
+     *         until it may retry
+     */
+    public long tryAcquire(String client) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(client, key -> {
+            double permitsPerSecond = quotas.getOrDefault(key, defaultPermitsPerSecond);
+            return new TokenBucket(permitsPerSecond, (int) Math.max(1, permitsPerSecond * burstSeconds), now);
+        });
+        long wait = bucket.tryAcquire(now);
+        if (wait > 0) {
+            rejected.increment();
+        }
+        return wait;
+    }
+
+    private static void requirePositive(String name, double value) {
+        if (!Double.isFinite(value) || value <= 0) {
+            throw new IllegalArgumentException(name + " must be finite and greater than 0, was " + value);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("products.requests.rejected", rejected, LongAdder::sum)
+                .tag("reason", "rate-limit")
+                .description("Requests refused with 429 because the client exceeded its quota")
+                .register(registry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.products_api.ratelimit;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for {@code /api/products}: first the client's quota
+ * (429), then the adaptive concurrency limit (503), both with
+ * {@code Retry-After}. Clients are identified by {@code X-API-Key} when it
+ * is one of the issued keys, and otherwise by remote address, so made-up
+ * keys neither get a fresh quota each nor fill the limiter with buckets.
+ * Behind the ingress the remote address is the client's, taken from
+ * {@code X-Forwarded-For} by the server when the request comes through a
+ * trusted proxy.
+ * <p>
+ * Long polls and streams hold a concurrency slot only until their handler
+ * returns; while they wait they are bound by the quota alone.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Set<String> apiKeys;
+
+    public RateLimitFilter(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+            Set<String> apiKeys) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.apiKeys = Set.copyOf(apiKeys);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/products");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        long wait = rateLimiter.tryAcquire(apiKey != null && apiKeys.contains(apiKey)
+                ? "key:" + apiKey
+                : "ip:" + request.getRemoteAddr());
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(wait) + 1,
+                    "Rate limit exceeded");
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server overloaded");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Long polls and streams give their slot back once the handler
+            // has returned: the limit guards the work done on request
+            // threads, and idle waiters would otherwise fill it. Their
+            // latency says nothing about load.
+            concurrencyLimiter.release(request.isAsyncStarted() ? -1 : System.nanoTime() - start);
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+            String details) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"details\":\"" + details + "\"}");
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.products_api.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single theoretical arrival time (the
+ * generic cell rate algorithm): each request pushes it one emission interval
+ * further, and a request is refused when that would put it more than a full
+ * burst ahead of now.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        if (!Double.isFinite(permitsPerSecond) || permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid token bucket: " + permitsPerSecond + " permits per second, burst " + burst);
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 when the request may proceed, otherwise the nanoseconds until
+     *         a token becomes available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
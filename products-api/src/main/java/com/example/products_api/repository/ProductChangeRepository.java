@@ -0,0 +1,43 @@
+package com.example.products_api.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.products_api.entity.ProductChangeEntity;
+
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChangeEntity, Long> {
+
+    /**
+     * Log entries after {@code position}, oldest first; an index range scan
+     * on {@code product_changes_position_idx}. Entries without a position
+     * yet are never returned.
+     */
+    List<ProductChangeEntity> findByPositionGreaterThanOrderByPosition(Long position, Limit limit);
+
+    @Query("SELECT MAX(c.position) FROM ProductChangeEntity c")
+    Long findLatestPosition();
+
+    /**
+     * Committed entries still waiting for a position, in write order.
+     */
+    List<ProductChangeEntity> findByPositionIsNullOrderById(Limit limit);
+
+    /**
+     * The last position handed out. Locks its row until the transaction
+     * ends, so only one replica assigns positions at a time.
+     */
+    @Query(value = "SELECT last_position FROM product_change_positions WHERE id = 1 FOR UPDATE",
+            nativeQuery = true)
+    long lockLastPosition();
+
+    @Modifying
+    @Query(value = "UPDATE product_change_positions SET last_position = :position WHERE id = 1",
+            nativeQuery = true)
+    void updateLastPosition(long position);
+}
@@ -2,10 +2,99 @@ package com.example.products_api.repository;
 
 import org.springframework.stereotype.Repository;
 
+import com.example.products_api.dto.ProductVersion;
 import com.example.products_api.entity.ProductEntity;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.QueryHint;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
-}
\ No newline at end of file
+public interface ProductRepository extends JpaRepository<ProductEntity, Long>, ProductSearchRepository,
+        ProductUpdateRepository {
+
+    /**
+     * Seek query for cursor pagination. With a keyset position this renders as
+     * {@code WHERE (sortKey, id) > (:sortKey, :id) ORDER BY sortKey, id LIMIT n},
+     * so no rows are skipped with OFFSET and no count query is issued.
+     */
+    Window<ProductEntity> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Page fetch without the companion count query; reads one extra row to
+     * tell whether a next page exists.
+     */
+    Slice<ProductEntity> findAllBy(Pageable pageable);
+
+    /**
+     * Page of a price range, with its count. {@code price BETWEEN} is a range
+     * scan on the {@code (price, id)} index.
+     */
+    Page<ProductEntity> findPageByPriceBetween(BigDecimal min, BigDecimal max, Pageable pageable);
+
+    /**
+     * Page of a price range without the count query, like
+     * {@link #findAllBy(Pageable)}.
+     */
+    Slice<ProductEntity> findSliceByPriceBetween(BigDecimal min, BigDecimal max, Pageable pageable);
+
+    /**
+     * Planner row estimate for {@code products}. PostgreSQL only.
+     */
+    @Query(value = "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = CAST('products' AS regclass)",
+            nativeQuery = true)
+    @Transactional(readOnly = true)
+    Long estimateCount();
+
+    /**
+     * Whole catalog as a server-side cursor. Must be consumed inside a
+     * transaction; rows are fetched from the database in blocks of the
+     * fetch size and loaded read-only, without dirty-checking snapshots.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM ProductEntity p ORDER BY p.id")
+    Stream<ProductEntity> streamAll();
+
+    /**
+     * Version and modification time only, to answer conditional requests
+     * without loading the product.
+     */
+    @Query("SELECT new com.example.products_api.dto.ProductVersion(p.version, p.lastModified) "
+            + "FROM ProductEntity p WHERE p.id = :id")
+    @Transactional(readOnly = true)
+    Optional<ProductVersion> findVersionById(Long id);
+
+    @Query("SELECT p.id FROM ProductEntity p WHERE p.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    /**
+     * Deletes the product with a single statement, without loading it first.
+     * Returns the number of rows deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM ProductEntity p WHERE p.id = :id")
+    int deleteProductById(Long id);
+}
@@ -0,0 +1,19 @@
+package com.example.products_api.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import com.example.products_api.entity.ProductEntity;
+
+public interface ProductSearchRepository {
+
+    /**
+     * Products whose name or description contains {@code text}
+     * (case-insensitive), optionally limited to a price range. Only the
+     * filters that are present end up in the SQL, so PostgreSQL can always
+     * plan them against the trigram indexes. No count query is issued.
+     */
+    Slice<ProductEntity> search(String text, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+}
@@ -0,0 +1,73 @@
+package com.example.products_api.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.example.products_api.entity.ProductEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    ProductSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<ProductEntity> search(String text, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        // ILIKE is what the gin_trgm_ops indexes serve; on H2 it is evaluated directly.
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductEntity> query = cb.createQuery(ProductEntity.class);
+        Root<ProductEntity> product = query.from(ProductEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        String pattern = "%" + escapeLike(text) + "%";
+        predicates.add(cb.or(
+                cb.ilike(product.get("name"), pattern, LIKE_ESCAPE),
+                cb.ilike(product.get("description"), pattern, LIKE_ESCAPE)));
+        if (minPrice != null) {
+            predicates.add(cb.ge(product.get("price"), minPrice));
+        }
+        if (maxPrice != null) {
+            predicates.add(cb.le(product.get("price"), maxPrice));
+        }
+        query.where(predicates.toArray(Predicate[]::new))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), product, cb));
+
+        // One extra row tells whether a next page exists without counting.
+        List<ProductEntity> content = new ArrayList<>(entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList());
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content.remove(content.size() - 1);
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.products_api.repository;
+
+import java.util.Optional;
+
+import com.example.products_api.dto.ProductPatch;
+import com.example.products_api.entity.ProductEntity;
+
+public interface ProductUpdateRepository {
+
+    /**
+     * Applies the non-null fields of {@code patch} and bumps the version in a
+     * single statement that also returns the updated row, so the product is
+     * never read before it is written. With an {@code expectedVersion} only
+     * that version is updated. Empty when no row matched.
+     */
+    Optional<ProductEntity> updateReturning(Long id, ProductPatch patch, Long expectedVersion);
+
+    /**
+     * Like {@link #updateReturning}, but writes every field of
+     * {@code values}: a null description is stored as null.
+     */
+    Optional<ProductEntity> replaceReturning(Long id, ProductPatch values, Long expectedVersion);
+}
@@ -0,0 +1,74 @@
+package com.example.products_api.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+
+import com.example.products_api.dto.ProductPatch;
+import com.example.products_api.entity.ProductEntity;
+
+import jakarta.persistence.EntityManager;
+
+class ProductUpdateRepositoryImpl implements ProductUpdateRepository {
+
+    private static final String UPDATE = "UPDATE products SET name = COALESCE(:name, name), "
+            + "description = COALESCE(:description, description), price = COALESCE(:price, price), "
+            + "version = version + 1, last_modified = :lastModified WHERE id = :id";
+
+    private static final String REPLACE = "UPDATE products SET name = :name, description = :description, "
+            + "price = :price, version = version + 1, last_modified = :lastModified WHERE id = :id";
+
+    private final EntityManager entityManager;
+
+    ProductUpdateRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<ProductEntity> updateReturning(Long id, ProductPatch patch, Long expectedVersion) {
+        return execute(UPDATE, id, patch, expectedVersion);
+    }
+
+    @Override
+    public Optional<ProductEntity> replaceReturning(Long id, ProductPatch values, Long expectedVersion) {
+        return execute(REPLACE, id, values, expectedVersion);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<ProductEntity> execute(String statement, Long id, ProductPatch patch, Long expectedVersion) {
+        String update = expectedVersion == null ? statement : statement + " AND version = :expectedVersion";
+        // PostgreSQL returns the row with RETURNING; H2 reads it from the
+        // data-change delta table.
+        String sql = isPostgres()
+                ? update + " RETURNING *"
+                : "SELECT * FROM FINAL TABLE (" + update + ")";
+
+        // Typed bindings, so a null patch field is sent with the column's type.
+        NativeQuery<ProductEntity> query = entityManager.createNativeQuery(sql, ProductEntity.class)
+                .unwrap(NativeQuery.class)
+                .setParameter("name", patch.name(), String.class)
+                .setParameter("description", patch.description(), String.class)
+                .setParameter("price", patch.price(), BigDecimal.class)
+                .setParameter("lastModified", Instant.now(), Instant.class)
+                .setParameter("id", id, Long.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion, Long.class);
+        }
+        List<ProductEntity> updated = query.getResultList();
+        return updated.stream().findFirst();
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.products_api.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.products_api.entity.ProductWriteEntity;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface ProductWriteRepository extends JpaRepository<ProductWriteEntity, String> {
+
+    Optional<ProductWriteEntity> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Forgets outcomes older than {@code cutoff}; their idempotency keys can
+     * be reused afterwards.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProductWriteEntity w WHERE w.completedAt < :cutoff")
+    int deleteCompletedBefore(Instant cutoff);
+}
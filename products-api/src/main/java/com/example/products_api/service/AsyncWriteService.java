@@ -0,0 +1,360 @@
+package com.example.products_api.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.products_api.dto.BatchItemResult;
+import com.example.products_api.dto.WriteStatus;
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.entity.ProductWriteEntity;
+import com.example.products_api.exception.InvalidWriteException;
+import com.example.products_api.repository.ProductWriteRepository;
+import com.example.products_api.utils.Prices;
+import com.example.products_api.writes.WriteCommand;
+import com.example.products_api.writes.WriteLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Accepts creates and updates into the local {@link WriteLog} and applies
+ * them in the background in batches, through the same batch methods as the
+ * bulk endpoints, so each flush is one transaction of grouped JDBC batches.
+ * <p>
+ * Each applied write leaves a {@link ProductWriteEntity} in that transaction.
+ * Writes already recorded are skipped, so a log replayed after a crash is
+ * applied once, and its idempotency key finds the earlier write.
+ * <p>
+ * A batch the database rejects is applied again one write at a time, and a
+ * write that still fails is recorded as FAILED, so one bad write cannot hold
+ * up the log. Only failures of the database itself leave writes in the log;
+ * those are retried with a growing delay.
+ */
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(name = "products.async-writes.enabled", havingValue = "true")
+public class AsyncWriteService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncWriteService.class);
+
+    // Width of the varchar columns the fields of a write end up in.
+    static final int MAX_TEXT_LENGTH = 255;
+
+    private final ProductService productService;
+    private final ProductWriteRepository writeRepository;
+    private final TransactionTemplate transactions;
+    private final WriteLog writeLog;
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration flushInterval;
+    private final Duration maxBackoff;
+    private int failedFlushes;
+    private Instant nextFlush = Instant.MIN;
+    private final Map<String, WriteCommand> pending = new ConcurrentHashMap<>();
+    private final Map<String, String> pendingByIdempotencyKey = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-write-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AsyncWriteService(ProductService productService, ProductWriteRepository writeRepository,
+            PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+            @Value("${products.async-writes.directory:data/write-log}") Path directory,
+            @Value("${products.async-writes.batch-size:500}") int batchSize,
+            @Value("${products.async-writes.flush-interval:200ms}") Duration flushInterval,
+            @Value("${products.async-writes.retention:7d}") Duration retention,
+            @Value("${products.async-writes.max-backoff:30s}") Duration maxBackoff) throws IOException {
+        this.productService = productService;
+        this.writeRepository = writeRepository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.writeLog = new WriteLog(directory, objectMapper);
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.flushInterval = flushInterval;
+        this.maxBackoff = maxBackoff;
+        for (WriteLog.Entry entry : writeLog.peek(Integer.MAX_VALUE)) {
+            track(entry.command());
+        }
+    }
+
+    /**
+     * Starts applying the log once the context is up; writes recovered from
+     * it would otherwise reach the (deferred) repositories from the flush
+     * thread while the context is still starting.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startFlushing() {
+        scheduler.scheduleWithFixedDelay(this::flushWhenDue, 0, flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::purge, 1, 60, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Durably queues a create ({@code productId} null) or update and returns
+     * its pending status. A repeated {@code idempotencyKey} returns the status
+     * of the write first submitted with it instead.
+     */
+    public WriteStatus submit(WriteCommand.Operation operation, Long productId, ProductEntity product,
+            String idempotencyKey) {
+        // Rejected here, since after the 202 the client only sees a FAILED status.
+        validate(operation, productId, product, idempotencyKey);
+        BigDecimal price = Prices.normalize(product.getPrice());
+        String trackingId = UUID.randomUUID().toString();
+        if (idempotencyKey != null) {
+            String existing = pendingByIdempotencyKey.putIfAbsent(idempotencyKey, trackingId);
+            if (existing != null) {
+                return getStatus(existing).orElse(WriteStatus.pending(existing, productId));
+            }
+            Optional<ProductWriteEntity> applied = writeRepository.findByIdempotencyKey(idempotencyKey);
+            if (applied.isPresent()) {
+                pendingByIdempotencyKey.remove(idempotencyKey, trackingId);
+                return applied.get().toStatus();
+            }
+        }
+        WriteCommand command = new WriteCommand(trackingId, idempotencyKey, operation, productId, product.getName(),
+                product.getDescription(), price, Instant.now());
+        pending.put(trackingId, command);
+        try {
+            writeLog.append(command);
+        } catch (RuntimeException e) {
+            untrack(command);
+            throw e;
+        }
+        log.debug("Accepted {} of product {} as {}", operation, productId, trackingId);
+        return WriteStatus.pending(trackingId, productId);
+    }
+
+    private static void validate(WriteCommand.Operation operation, Long productId, ProductEntity product,
+            String idempotencyKey) {
+        if (operation == WriteCommand.Operation.UPDATE && productId == null) {
+            throw new InvalidWriteException("id is required for an update");
+        }
+        requireText("name", product.getName());
+        if (product.getDescription() != null) {
+            requireText("description", product.getDescription());
+        }
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || length(idempotencyKey) > MAX_TEXT_LENGTH)) {
+            throw new InvalidWriteException("Idempotency-Key must have between 1 and " + MAX_TEXT_LENGTH
+                    + " characters");
+        }
+    }
+
+    private static void requireText(String field, String value) {
+        if (value == null) {
+            throw new InvalidWriteException(field + " is required");
+        }
+        if (length(value) > MAX_TEXT_LENGTH) {
+            throw new InvalidWriteException(field + " must have at most " + MAX_TEXT_LENGTH + " characters");
+        }
+    }
+
+    private static int length(String value) {
+        return value.codePointCount(0, value.length());
+    }
+
+    public Optional<WriteStatus> getStatus(String trackingId) {
+        WriteCommand command = pending.get(trackingId);
+        if (command != null) {
+            return Optional.of(WriteStatus.pending(trackingId, command.productId()));
+        }
+        return writeRepository.findById(trackingId).map(ProductWriteEntity::toStatus);
+    }
+
+    private void track(WriteCommand command) {
+        pending.put(command.trackingId(), command);
+        if (command.idempotencyKey() != null) {
+            pendingByIdempotencyKey.put(command.idempotencyKey(), command.trackingId());
+        }
+    }
+
+    private void untrack(WriteCommand command) {
+        pending.remove(command.trackingId());
+        if (command.idempotencyKey() != null) {
+            pendingByIdempotencyKey.remove(command.idempotencyKey(), command.trackingId());
+        }
+    }
+
+    private void flushWhenDue() {
+        if (Instant.now().isBefore(nextFlush)) {
+            return;
+        }
+        if (flush()) {
+            failedFlushes = 0;
+            nextFlush = Instant.MIN;
+        } else {
+            // Doubles from the flush interval up to the maximum backoff.
+            failedFlushes++;
+            Duration backoff = flushInterval.multipliedBy(1L << Math.min(failedFlushes, 20));
+            nextFlush = Instant.now().plus(backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff);
+        }
+    }
+
+    /**
+     * Applies everything durable in the log, a batch per transaction, and
+     * returns whether the log was drained. A batch the database could not
+     * apply stays in the log for the next run.
+     */
+    boolean flush() {
+        try {
+            List<WriteLog.Entry> batch;
+            while (!(batch = writeLog.peek(batchSize)).isEmpty()) {
+                List<WriteCommand> commands = batch.stream().map(WriteLog.Entry::command).toList();
+                try {
+                    transactions.executeWithoutResult(status -> apply(commands));
+                } catch (RuntimeException e) {
+                    if (isTransient(e)) {
+                        throw e;
+                    }
+                    log.warn("Could not apply {} queued writes together; applying them one at a time",
+                            commands.size(), e);
+                    commands.forEach(this::applyAlone);
+                }
+                writeLog.markApplied(batch);
+                commands.forEach(this::untrack);
+                log.info("Applied {} queued writes", commands.size());
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Could not apply queued writes, {} still pending; retrying", writeLog.unappliedCount(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Applies one write in its own transaction, or records it as FAILED if
+     * the database rejects it.
+     */
+    private void applyAlone(WriteCommand command) {
+        try {
+            transactions.executeWithoutResult(status -> apply(List.of(command)));
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            log.error("Write {} cannot be applied; recording it as failed", command.trackingId(), e);
+            String error = "Could not apply write: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            ProductWriteEntity failed = new ProductWriteEntity(command.trackingId(), command.idempotencyKey(),
+                    WriteStatus.Status.FAILED, command.productId(),
+                    error.length() > MAX_TEXT_LENGTH ? error.substring(0, MAX_TEXT_LENGTH) : error, Instant.now());
+            transactions.executeWithoutResult(status -> writeRepository.save(failed));
+        }
+    }
+
+    /**
+     * Whether {@code e} is a failure of the database rather than of the
+     * writes, so applying them again later may succeed.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException || e instanceof CannotCreateTransactionException;
+    }
+
+    private void apply(List<WriteCommand> commands) {
+        Set<String> alreadyApplied = writeRepository
+                .findAllById(commands.stream().map(WriteCommand::trackingId).toList())
+                .stream()
+                .map(ProductWriteEntity::getTrackingId)
+                .collect(Collectors.toSet());
+        List<ProductWriteEntity> outcomes = new ArrayList<>(commands.size());
+        // Consecutive commands of the same kind go through one batch call, which
+        // keeps creates and updates of the same product in submission order.
+        int start = 0;
+        while (start < commands.size()) {
+            WriteCommand.Operation operation = commands.get(start).operation();
+            int end = start;
+            List<WriteCommand> run = new ArrayList<>();
+            while (end < commands.size() && commands.get(end).operation() == operation) {
+                WriteCommand command = commands.get(end++);
+                if (!alreadyApplied.contains(command.trackingId())) {
+                    run.add(command);
+                }
+            }
+            if (!run.isEmpty()) {
+                List<ProductEntity> products = run.stream().map(AsyncWriteService::toEntity).toList();
+                List<BatchItemResult> results = operation == WriteCommand.Operation.CREATE
+                        ? productService.createProducts(products)
+                        : productService.updateProducts(products);
+                for (int i = 0; i < run.size(); i++) {
+                    outcomes.add(toOutcome(run.get(i), results.get(i)));
+                }
+            }
+            start = end;
+        }
+        writeRepository.saveAll(outcomes);
+    }
+
+    private static ProductEntity toEntity(WriteCommand command) {
+        ProductEntity product = new ProductEntity(command.name(), command.description(), command.price());
+        product.setId(command.productId());
+        return product;
+    }
+
+    private static ProductWriteEntity toOutcome(WriteCommand command, BatchItemResult result) {
+        WriteStatus.Status status;
+        String error = result.error();
+        switch (result.status()) {
+            case CREATED, UPDATED -> status = WriteStatus.Status.APPLIED;
+            case NOT_FOUND -> {
+                status = WriteStatus.Status.FAILED;
+                error = "Could not find product with id " + command.productId();
+            }
+            default -> status = WriteStatus.Status.FAILED;
+        }
+        return new ProductWriteEntity(command.trackingId(), command.idempotencyKey(), status, result.id(), error,
+                Instant.now());
+    }
+
+    private void purge() {
+        try {
+            int purged = writeRepository.deleteCompletedBefore(Instant.now().minus(retention));
+            if (purged > 0) {
+                log.info("Purged {} write outcomes older than {}", purged, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not purge old write outcomes", e);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever is left is applied from the log on the next start.
+        flush();
+        writeLog.close();
+    }
+}
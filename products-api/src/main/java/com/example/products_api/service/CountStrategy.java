@@ -0,0 +1,36 @@
+package com.example.products_api.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import com.example.products_api.exception.InvalidCountStrategyException;
+
+/**
+ * How {@link ProductService#getProducts} fills the totals of a page.
+ */
+public enum CountStrategy {
+    /** Run a {@code count(*)} alongside every page fetch. */
+    EXACT,
+    /** Reuse a recent {@code count(*)} for a short TTL; invalidated on create/delete. */
+    CACHED,
+    /** Use the PostgreSQL planner row estimate, reused for the cache TTL; falls back to {@link #CACHED} elsewhere. */
+    ESTIMATED,
+    /** Skip totals entirely and only report whether a next page exists. */
+    NONE;
+
+    /**
+     * The strategy named by {@code value}, ignoring case. An unknown value is
+     * rejected rather than mapped to {@link #EXACT}, the most expensive one.
+     */
+    public static CountStrategy from(String value) {
+        for (CountStrategy strategy : values()) {
+            if (strategy.name().equalsIgnoreCase(value)) {
+                return strategy;
+            }
+        }
+        throw new InvalidCountStrategyException(value, Arrays.stream(values())
+                .map(strategy -> strategy.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(", ", "[", "]")));
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.products_api.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.products_api.entity.ProductChangeEntity;
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.repository.ProductChangeRepository;
+import com.example.products_api.repository.ProductRepository;
+import com.example.products_api.utils.ChangeFeedResponse;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Writes and serves the product change log, so mirrors can sync by reading
+ * only what changed since their last position.
+ * <p>
+ * Entries are written without a position. After they commit, positions are
+ * assigned in a separate transaction that holds the
+ * {@code product_change_positions} row lock, so assignments from all
+ * replicas are serialized and every later one gets higher positions. An
+ * entry therefore never becomes visible behind a position a reader has
+ * already passed, however long its writing transaction took to commit.
+ */
+@Service
+@Profile("!reactive")
+public class ProductChangeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeService.class);
+
+    private static final int POSITIONS_PER_TRANSACTION = 1000;
+
+    private final ProductChangeRepository changeRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactions;
+    private final TransactionOperations readOnlyTransactions;
+    private final Duration pollInterval;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean pollRequested = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductChangeService(ProductChangeRepository changeRepository, ProductRepository productRepository,
+            PlatformTransactionManager transactionManager, TransactionOperations readOnlyTransactions,
+            @Value("${products.changes.poll-interval:1s}") Duration pollInterval) {
+        this.changeRepository = changeRepository;
+        this.productRepository = productRepository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactions = readOnlyTransactions;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * Starts polling once the context is up, so the background thread never
+     * initializes the (deferred) repositories while the context is starting.
+     * Polling also positions entries left by replicas that stopped before
+     * doing it, and picks up changes committed by other replicas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPolling() {
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Appends to the log in the caller's transaction.
+     */
+    public void record(Long productId, ProductChangeEntity.Type type) {
+        changeRepository.save(new ProductChangeEntity(productId, type, Instant.now()));
+    }
+
+    public void recordAll(Collection<Long> productIds, ProductChangeEntity.Type type) {
+        Instant now = Instant.now();
+        changeRepository.saveAll(productIds.stream()
+                .map(productId -> new ProductChangeEntity(productId, type, now))
+                .toList());
+    }
+
+    /**
+     * Gives every committed entry without a position the next positions, in
+     * write order, and returns how many were assigned. Only one replica at a
+     * time gets past the lock; the others wait and then find nothing left.
+     */
+    public int assignPositions() {
+        int assigned = 0;
+        int batch;
+        do {
+            batch = transactions.execute(status -> {
+                long last = changeRepository.lockLastPosition();
+                List<ProductChangeEntity> entries = changeRepository
+                        .findByPositionIsNullOrderById(Limit.of(POSITIONS_PER_TRANSACTION));
+                if (entries.isEmpty()) {
+                    return 0;
+                }
+                for (ProductChangeEntity entry : entries) {
+                    entry.setPosition(++last);
+                }
+                changeRepository.updateLastPosition(last);
+                return entries.size();
+            });
+            assigned += batch;
+        } while (batch == POSITIONS_PER_TRANSACTION);
+        if (assigned > 0 && log.isDebugEnabled()) {
+            log.debug("Assigned positions to {} changes", assigned);
+        }
+        return assigned;
+    }
+
+    /**
+     * Changes after {@code since}, collapsed to the latest state of each
+     * product. Only entries that already have a position are read.
+     * <p>
+     * The log and the products are read in one read-only transaction, so
+     * from the same database: a replica that has the entry also has the
+     * write behind it, and one that lags has neither, rather than a change
+     * whose row seems deleted.
+     */
+    public ChangeFeedResponse<ProductEntity> getChanges(long since, int limit) {
+        return readOnlyTransactions.execute(status -> loadChanges(since, limit));
+    }
+
+    private ChangeFeedResponse<ProductEntity> loadChanges(long since, int limit) {
+        List<ProductChangeEntity> entries = changeRepository.findByPositionGreaterThanOrderByPosition(since,
+                Limit.of(limit + 1));
+        boolean hasMore = entries.size() > limit;
+
+        Map<Long, ProductChangeEntity> latestByProduct = new LinkedHashMap<>();
+        long position = since;
+        for (ProductChangeEntity entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            latestByProduct.remove(entry.getProductId());
+            latestByProduct.put(entry.getProductId(), entry);
+            position = entry.getPosition();
+        }
+
+        Map<Long, ProductEntity> products = productRepository.findAllById(latestByProduct.keySet()).stream()
+                .collect(Collectors.toMap(ProductEntity::getId, Function.identity()));
+        List<ChangeFeedResponse.Change<ProductEntity>> changes = new ArrayList<>(latestByProduct.size());
+        for (ProductChangeEntity entry : latestByProduct.values()) {
+            // Whatever the entry says, the row's presence now decides between content and tombstone.
+            ProductEntity product = products.get(entry.getProductId());
+            changes.add(new ChangeFeedResponse.Change<>(entry.getPosition(),
+                    product == null ? ProductChangeEntity.Type.DELETE : ProductChangeEntity.Type.UPSERT,
+                    entry.getProductId(), product));
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Read {} changes after position {}", changes.size(), since);
+        }
+        return new ChangeFeedResponse<>(changes, position, hasMore);
+    }
+
+    /**
+     * Like {@link #getChanges}, but when nothing has changed yet, completes
+     * once something does or with an empty response after {@code wait}.
+     */
+    public CompletableFuture<ChangeFeedResponse<ProductEntity>> awaitChanges(long since, int limit, Duration wait) {
+        ChangeFeedResponse<ProductEntity> changes = getChanges(since, limit);
+        if (!changes.changes().isEmpty() || wait.isZero()) {
+            return CompletableFuture.completedFuture(changes);
+        }
+        Waiter waiter = new Waiter(since, limit, System.nanoTime() + wait.toNanos(), new CompletableFuture<>());
+        waiters.add(waiter);
+        return waiter.result();
+    }
+
+    /**
+     * Positions the new entries and wakes long-polling readers in the
+     * background; call after a change is committed. Calls made while that is
+     * still pending share it.
+     */
+    public void notifyChanged() {
+        if (pollRequested.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                pollRequested.set(false);
+                poll();
+            });
+        }
+    }
+
+    private void poll() {
+        try {
+            assignPositions();
+        } catch (RuntimeException e) {
+            log.warn("Could not assign change log positions", e);
+        }
+        checkWaiters();
+    }
+
+    private void checkWaiters() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        long latest;
+        try {
+            Long latestPosition = changeRepository.findLatestPosition();
+            latest = latestPosition == null ? 0 : latestPosition;
+        } catch (RuntimeException e) {
+            log.warn("Could not read the change log position", e);
+            return;
+        }
+        long now = System.nanoTime();
+        for (Iterator<Waiter> iterator = waiters.iterator(); iterator.hasNext();) {
+            Waiter waiter = iterator.next();
+            try {
+                if (!waiter.result().isDone() && latest > waiter.since()) {
+                    ChangeFeedResponse<ProductEntity> changes = getChanges(waiter.since(), waiter.limit());
+                    if (!changes.changes().isEmpty()) {
+                        waiter.result().complete(changes);
+                    }
+                }
+                if (!waiter.result().isDone() && now - waiter.deadline() >= 0) {
+                    waiter.result().complete(new ChangeFeedResponse<>(List.of(), waiter.since(), false));
+                }
+            } catch (RuntimeException e) {
+                waiter.result().completeExceptionally(e);
+            }
+            if (waiter.result().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private record Waiter(long since, int limit, long deadline,
+            CompletableFuture<ChangeFeedResponse<ProductEntity>> result) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.products_api.service;
+
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.example.products_api.repository.ProductRepository;
+
+/**
+ * Source of product totals for the non-exact {@link CountStrategy} modes.
+ */
+@Component
+@Profile("!reactive")
+public class ProductCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCounter.class);
+
+    private final ProductRepository productRepository;
+    private final DataSource dataSource;
+    private final long ttlNanos;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile CachedCount cachedCount;
+    private volatile CachedCount cachedEstimate;
+    private volatile Boolean estimateSupported;
+
+    public ProductCounter(ProductRepository productRepository, DataSource dataSource,
+            @Value("${products.count-cache.ttl:5s}") Duration ttl) {
+        this.productRepository = productRepository;
+        this.dataSource = dataSource;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long cached() {
+        CachedCount current = cachedCount;
+        long now = System.nanoTime();
+        if (current != null && now - current.loadedAt() < ttlNanos) {
+            return current.count();
+        }
+        long loadGeneration = generation.get();
+        long count = productRepository.count();
+        // A create/delete that raced with the count must not be masked by a stale value.
+        if (generation.get() == loadGeneration) {
+            cachedCount = new CachedCount(count, now);
+        }
+        return count;
+    }
+
+    /**
+     * The planner's row estimate, reused for the same TTL as {@link #cached()}
+     * so a page costs one query. Writes leave it alone: reltuples only moves
+     * when the table is analyzed, and callers never report fewer rows than
+     * the page has shown to exist.
+     */
+    public long estimated() {
+        CachedCount current = cachedEstimate;
+        long now = System.nanoTime();
+        if (current != null && now - current.loadedAt() < ttlNanos) {
+            return current.count();
+        }
+        if (isEstimateSupported()) {
+            Long estimate = productRepository.estimateCount();
+            // reltuples is -1 until the table has been vacuumed or analyzed once.
+            if (estimate != null && estimate >= 0) {
+                cachedEstimate = new CachedCount(estimate, now);
+                return estimate;
+            }
+        }
+        return cached();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        cachedCount = null;
+    }
+
+    private boolean isEstimateSupported() {
+        Boolean supported = estimateSupported;
+        if (supported == null) {
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(dataSource,
+                        DatabaseMetaData::getDatabaseProductName);
+                supported = "PostgreSQL".equals(product);
+            } catch (MetaDataAccessException e) {
+                log.warn("Could not determine database product, using cached counts", e);
+                supported = false;
+            }
+            estimateSupported = supported;
+        }
+        return supported;
+    }
+
+    private record CachedCount(long count, long loadedAt) {
+    }
+}
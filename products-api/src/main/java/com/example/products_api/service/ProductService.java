@@ -1,82 +1,533 @@
 package com.example.products_api.service;
 
+import io.micrometer.observation.annotation.Observed;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.example.products_api.cache.ProductCache;
+import com.example.products_api.cache.RequestCoalescer;
+import com.example.products_api.cache.SerializedPageCache;
+import com.example.products_api.datasource.ReadYourWrites;
+import com.example.products_api.dto.BatchItemResult;
+import com.example.products_api.dto.ProductPatch;
+import com.example.products_api.dto.ProductVersion;
+import com.example.products_api.entity.ProductChangeEntity;
 import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.exception.InvalidCursorException;
+import com.example.products_api.exception.InvalidLookupException;
+import com.example.products_api.exception.InvalidSearchException;
+import com.example.products_api.exception.InvalidWriteException;
+import com.example.products_api.exception.PreconditionFailedException;
 import com.example.products_api.exception.ProductNotFoundException;
 import com.example.products_api.repository.ProductRepository;
+import com.example.products_api.utils.CursorCodec;
+import com.example.products_api.utils.CursorPagedResponse;
+import com.example.products_api.utils.PageLimits;
 import com.example.products_api.utils.PagedResponse;
+import com.example.products_api.utils.PriceRange;
+import com.example.products_api.utils.Prices;
+import com.example.products_api.utils.ProductSort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
 
 @Service
+@Profile("!reactive")
+@Observed(name = "products.service")
 public class ProductService {
 
     private static final Logger log = LoggerFactory.getLogger(ProductService.class);
 
+    /**
+     * Shortest search text the trigram indexes can narrow down; anything
+     * shorter would degrade into a scan of the whole index.
+     */
+    static final int MIN_SEARCH_LENGTH = 3;
+
+    /**
+     * Ids per IN list when looking products up. Keeps the statement within
+     * the bind-parameter limits of the drivers and the number of distinct
+     * statement shapes small.
+     */
+    static final int LOOKUP_CHUNK_SIZE = 500;
+
     private final ProductRepository productRepository;
+    private final ProductCounter productCounter;
+    private final ProductCache productCache;
+    private final EntityManager entityManager;
+    private final ProductChangeService productChangeService;
+    private final RequestCoalescer pageCoalescer;
+    private final SerializedPageCache pageCache;
+    private final TransactionOperations readOnlyTransactions;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductCounter productCounter,
+            ProductCache productCache, EntityManager entityManager, ProductChangeService productChangeService,
+            RequestCoalescer pageCoalescer, SerializedPageCache pageCache, TransactionOperations readOnlyTransactions) {
         this.productRepository = productRepository;
+        this.productCounter = productCounter;
+        this.productCache = productCache;
+        this.entityManager = entityManager;
+        this.productChangeService = productChangeService;
+        this.pageCoalescer = pageCoalescer;
+        this.pageCache = pageCache;
+        this.readOnlyTransactions = readOnlyTransactions;
+    }
+
+    /**
+     * Concurrent requests for the same page share one query. Coalescing
+     * happens before the transaction starts, so waiting callers hold no
+     * connection.
+     */
+    public PagedResponse<ProductEntity> getProducts(int page, int size, String sortBy, String sortDir,
+            CountStrategy countStrategy) {
+        return getProducts(page, size, sortBy, sortDir, countStrategy, PriceRange.UNBOUNDED);
     }
 
-    public PagedResponse<ProductEntity> getProducts(int page, int size, String sortBy, String sortDir) {
-        log.info("Fetching products - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+    /**
+     * Listing limited to a price range. Cached and estimated totals cover the
+     * whole table, so a bounded range only reports totals when counted exactly.
+     */
+    public PagedResponse<ProductEntity> getProducts(int page, int size, String sortBy, String sortDir,
+            CountStrategy countStrategy, PriceRange priceRange) {
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching products - page: {}, size: {}, sortBy: {}, sortDir: {}, count: {}, price: {}", page,
+                    size, sortBy, sortDir, countStrategy, priceRange);
+        }
 
-        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
-        Pageable pageable = PageRequest.of(page - 1, size, Sort.by(direction, sortBy));
-        Page<ProductEntity> products = productRepository.findAll(pageable);
+        PageLimits.checkSize(size);
+        Sort sort = ProductSort.of(sortBy, sortDir);
+        List<Object> key = List.of("page", page, size, sort, countStrategy, priceRange, ReadYourWrites.isPinned());
+        return pageCoalescer.execute(key, () -> readOnlyTransactions.execute(
+                status -> loadProducts(page, size, sort, countStrategy, priceRange)));
+    }
+
+    private PagedResponse<ProductEntity> loadProducts(int page, int size, Sort sort, CountStrategy countStrategy,
+            PriceRange priceRange) {
+        Pageable pageable = PageRequest.of(page - 1, size, sort);
+
+        if (countStrategy == CountStrategy.EXACT) {
+            Page<ProductEntity> products = priceRange.isBounded()
+                    ? productRepository.findPageByPriceBetween(priceRange.lower(), priceRange.upper(), pageable)
+                    : productRepository.findAll(pageable);
+            if (log.isDebugEnabled()) {
+                log.debug("Fetched {} products", products.getNumberOfElements());
+            }
+            return new PagedResponse<>(products.getContent(), products.getTotalElements(), products.getTotalPages(),
+                    products.hasNext());
+        }
+
+        Slice<ProductEntity> products = priceRange.isBounded()
+                ? productRepository.findSliceByPriceBetween(priceRange.lower(), priceRange.upper(), pageable)
+                : productRepository.findAllBy(pageable);
+        if (log.isDebugEnabled()) {
+            log.debug("Fetched {} products", products.getNumberOfElements());
+        }
+        if (countStrategy == CountStrategy.NONE || priceRange.isBounded()) {
+            return new PagedResponse<>(products.getContent(), null, null, products.hasNext());
+        }
 
-        log.info("Fetched {} products", products);
-        return new PagedResponse<>(products.getContent(), products.getTotalElements(), products.getTotalPages());
+        long total = countStrategy == CountStrategy.CACHED ? productCounter.cached() : productCounter.estimated();
+        // Never report fewer rows than this page has just proven to exist.
+        long seen = pageable.getOffset() + products.getNumberOfElements() + (products.hasNext() ? 1 : 0);
+        total = Math.max(total, seen);
+        return new PagedResponse<>(products.getContent(), total, (int) ((total + size - 1) / size),
+                products.hasNext());
     }
 
+    @Transactional(readOnly = true)
+    public PagedResponse<ProductEntity> searchProducts(String query, BigDecimal minPrice, BigDecimal maxPrice,
+            int page, int size, String sortBy, String sortDir) {
+        if (log.isDebugEnabled()) {
+            log.debug("Searching products - query: {}, minPrice: {}, maxPrice: {}, page: {}, size: {}", query,
+                    minPrice, maxPrice, page, size);
+        }
+        String text = query == null ? "" : query.strip();
+        if (text.length() < MIN_SEARCH_LENGTH) {
+            throw new InvalidSearchException("Search query must have at least " + MIN_SEARCH_LENGTH + " characters");
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new InvalidSearchException("minPrice must not be greater than maxPrice");
+        }
+
+        PageLimits.checkSize(size);
+        Pageable pageable = PageRequest.of(page - 1, size, ProductSort.of(sortBy, sortDir));
+        Slice<ProductEntity> products = productRepository.search(text, minPrice, maxPrice, pageable);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} products", products.getNumberOfElements());
+        }
+        return new PagedResponse<>(products.getContent(), null, null, products.hasNext());
+    }
+
+    public CursorPagedResponse<ProductEntity> getProductsAfter(String after, int size, String sortBy, String sortDir) {
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching products - after: {}, size: {}, sortBy: {}, sortDir: {}", after, size, sortBy,
+                    sortDir);
+        }
+
+        PageLimits.checkSize(size);
+        Sort sort = ProductSort.of(sortBy, sortDir);
+        List<Object> key = List.of("after", after, size, sort, ReadYourWrites.isPinned());
+        return pageCoalescer.execute(key, () -> readOnlyTransactions.execute(
+                status -> loadProductsAfter(after, size, sortBy, sort)));
+    }
+
+    private CursorPagedResponse<ProductEntity> loadProductsAfter(String after, int size, String sortBy, Sort sort) {
+        KeysetScrollPosition position = after.isEmpty()
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(decodeCursor(after, sortBy));
+        Window<ProductEntity> products = productRepository.findAllBy(position, sort, Limit.of(size));
+
+        String nextCursor = null;
+        if (products.hasNext()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) products.positionAt(products.size() - 1);
+            nextCursor = CursorCodec.encode(last.getKeys());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Fetched {} products", products.size());
+        }
+        return new CursorPagedResponse<>(products.getContent(), nextCursor, products.hasNext());
+    }
+
+    private Map<String, Object> decodeCursor(String after, String sortBy) {
+        try {
+            return CursorCodec.decode(after, ProductSort.keyTypes(sortBy));
+        } catch (InvalidCursorException e) {
+            log.debug("Cursor {} does not match sort field {}", after, sortBy);
+            throw e;
+        }
+    }
+
+    @Transactional
     public ProductEntity createProduct(ProductEntity product) {
-        log.info("Creating new product: {}", product);
+        log.debug("Creating new product: {}", product);
+        product.setPrice(Prices.normalize(product.getPrice()));
         ProductEntity savedProduct = productRepository.save(product);
-        log.info("Product created with ID: {}", savedProduct.getId());
+        productChangeService.record(savedProduct.getId(), ProductChangeEntity.Type.UPSERT);
+        afterCommit(() -> {
+            productCounter.invalidate();
+            productChangeService.notifyChanged();
+            invalidatePages();
+        });
+        log.debug("Product created with ID: {}", savedProduct.getId());
         return savedProduct;
     }
 
     public ProductEntity getProductById(Long id) {
-        log.info("Fetching product with ID: {}", id);
-        return productRepository.findById(id)
+        log.debug("Fetching product with ID: {}", id);
+        // A row read from a lagging replica would stay cached for the whole TTL.
+        ProductEntity product = productCache.get(id,
+                key -> ReadYourWrites.onPrimary(() -> productRepository.findById(key).orElse(null)));
+        if (product == null) {
+            log.debug("Product with ID {} not found", id);
+            throw new ProductNotFoundException(id);
+        }
+        return product;
+    }
+
+    /**
+     * Products for {@code ids} by id, for resolving many ids in one request.
+     * Cached products are served from the cache; the misses are read
+     * together, with one IN query per {@link #LOOKUP_CHUNK_SIZE} ids. Ids that
+     * do not exist have no entry.
+     */
+    public Map<Long, ProductEntity> getProductsByIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > PageLimits.MAX_SIZE) {
+            throw new InvalidLookupException(
+                    "Between 1 and " + PageLimits.MAX_SIZE + " ids can be looked up at once, got " + ids.size());
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidLookupException("ids must not contain empty values");
+        }
+        log.debug("Looking up {} products by id", ids.size());
+        return productCache.getAll(ids, misses -> ReadYourWrites.onPrimary(
+                () -> readOnlyTransactions.execute(status -> loadProductsByIds(misses))));
+    }
+
+    private Map<Long, ProductEntity> loadProductsByIds(Set<Long> ids) {
+        List<Long> pending = new ArrayList<>(ids);
+        Map<Long, ProductEntity> products = new HashMap<>(pending.size());
+        for (int from = 0; from < pending.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = pending.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, pending.size()));
+            for (ProductEntity product : productRepository.findAllById(chunk)) {
+                products.put(product.getId(), product);
+            }
+        }
+        log.debug("Loaded {} of {} products missing from the cache", products.size(), ids.size());
+        return products;
+    }
+
+    /**
+     * Version and last modification of a product, from the cache when it is
+     * there and otherwise without loading the row. Read from the primary,
+     * like the product itself, so a replica behind a write cannot answer 304.
+     */
+    public ProductVersion getProductVersion(Long id) {
+        ProductEntity cachedProduct = productCache.getIfPresent(id);
+        if (cachedProduct != null) {
+            return new ProductVersion(cachedProduct.getVersion(), cachedProduct.getLastModified());
+        }
+        return ReadYourWrites.onPrimary(() -> productRepository.findVersionById(id))
                 .orElseThrow(() -> {
-                    log.error("Product with ID {} not found", id);
+                    log.debug("Product with ID {} not found", id);
                     return new ProductNotFoundException(id);
                 });
     }
 
-    public ProductEntity updateProduct(Long id, ProductEntity product) {
-        log.info("Updating product with ID: {}", id);
-        return productRepository.findById(id)
-                .map(existingProduct -> {
-                    log.info("Existing product found: {}", existingProduct);
-                    existingProduct.setName(product.getName());
-                    existingProduct.setDescription(product.getDescription());
-                    existingProduct.setPrice(product.getPrice());
-                    ProductEntity updatedProduct = productRepository.save(existingProduct);
-                    log.info("Product updated: {}", updatedProduct);
-                    return updatedProduct;
-                })
+    /**
+     * Replaces the product's fields, so a null description clears it. With an
+     * {@code expectedVersion} the update only applies to that version.
+     */
+    @Transactional
+    public ProductEntity updateProduct(Long id, ProductEntity product, Long expectedVersion) {
+        log.debug("Updating product with ID: {}", id);
+        if (product.getName() == null) {
+            throw new InvalidWriteException("name is required");
+        }
+        ProductPatch values = new ProductPatch(product.getName(), product.getDescription(),
+                Prices.normalize(product.getPrice()));
+        return applyUpdate(id, productRepository.replaceReturning(id, values, expectedVersion), expectedVersion);
+    }
+
+    /**
+     * Changes only the fields present in {@code patch}, with the same
+     * {@code expectedVersion} check as {@link #updateProduct}.
+     */
+    @Transactional
+    public ProductEntity patchProduct(Long id, ProductPatch patch, Long expectedVersion) {
+        log.debug("Patching product with ID: {}", id);
+        if (patch.price() != null) {
+            patch = new ProductPatch(patch.name(), patch.description(), Prices.normalize(patch.price()));
+        }
+        return applyUpdate(id, productRepository.updateReturning(id, patch, expectedVersion), expectedVersion);
+    }
+
+    /**
+     * Finishes an UPDATE that returned the new row; the version check is part
+     * of its WHERE clause. Only when nothing matched is the product looked up
+     * again, to tell a missing product from a stale version.
+     */
+    private ProductEntity applyUpdate(Long id, Optional<ProductEntity> updated, Long expectedVersion) {
+        ProductEntity updatedProduct = updated
                 .orElseThrow(() -> {
-                    log.error("Product with ID {} not found for update", id);
+                    if (expectedVersion != null && productRepository.existsById(id)) {
+                        log.debug("Product with ID {} is not at version {}", id, expectedVersion);
+                        return new PreconditionFailedException(id);
+                    }
+                    log.debug("Product with ID {} not found for update", id);
                     return new ProductNotFoundException(id);
                 });
+        productChangeService.record(id, ProductChangeEntity.Type.UPSERT);
+        afterCommit(() -> {
+            productCache.evict(id);
+            productChangeService.notifyChanged();
+            invalidatePages();
+        });
+        log.debug("Product updated: {}", updatedProduct);
+        return updatedProduct;
     }
 
+    @Transactional
     public void deleteProduct(Long id) {
-        log.info("Deleting product with ID: {}", id);
-        ProductEntity product = productRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.error("Product with ID {} not found for deletion", id);
-                    return new ProductNotFoundException(id);
-                });
-        productRepository.delete(product);
-        log.info("Product with ID {} deleted successfully", id);
+        log.debug("Deleting product with ID: {}", id);
+        if (productRepository.deleteProductById(id) == 0) {
+            log.debug("Product with ID {} not found for deletion", id);
+            throw new ProductNotFoundException(id);
+        }
+        productChangeService.record(id, ProductChangeEntity.Type.DELETE);
+        afterCommit(() -> {
+            productCache.evict(id);
+            productCounter.invalidate();
+            productChangeService.notifyChanged();
+            invalidatePages();
+        });
+        log.debug("Product with ID {} deleted successfully", id);
+    }
+
+    /**
+     * Hands every product to {@code consumer} in id order from a single
+     * server-side cursor. Each entity is detached once consumed, so memory
+     * stays flat regardless of catalog size.
+     */
+    @Transactional(readOnly = true)
+    public long exportProducts(Consumer<ProductEntity> consumer) {
+        log.info("Exporting all products");
+        long exported = 0;
+        try (Stream<ProductEntity> products = productRepository.streamAll()) {
+            Iterator<ProductEntity> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                ProductEntity product = iterator.next();
+                consumer.accept(product);
+                entityManager.detach(product);
+                exported++;
+            }
+        }
+        log.info("Exported {} products", exported);
+        return exported;
+    }
+
+    /**
+     * Inserts the valid products in one transaction. Ids come from the pooled
+     * sequence, so Hibernate sends the inserts as JDBC batches on flush.
+     * Results are aligned with {@code products}.
+     */
+    @Transactional
+    public List<BatchItemResult> createProducts(List<ProductEntity> products) {
+        log.debug("Creating batch of {} products", products.size());
+        List<ProductEntity> validProducts = products.stream().filter(this::isValid).toList();
+        validProducts.forEach(product -> product.setPrice(Prices.normalize(product.getPrice())));
+        productRepository.saveAll(validProducts);
+        productChangeService.recordAll(validProducts.stream().map(ProductEntity::getId).toList(),
+                ProductChangeEntity.Type.UPSERT);
+
+        List<BatchItemResult> results = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            ProductEntity product = products.get(i);
+            results.add(isValid(product)
+                    ? BatchItemResult.of(i, product.getId(), BatchItemResult.Status.CREATED)
+                    : BatchItemResult.failed(i, null, "name and a valid price are required"));
+        }
+        afterCommit(() -> {
+            productCounter.invalidate();
+            productChangeService.notifyChanged();
+            invalidatePages();
+        });
+        log.info("Created {} of {} products", validProducts.size(), products.size());
+        return results;
+    }
+
+    /**
+     * Loads all targeted rows with one IN query and lets Hibernate flush the
+     * changes as batched updates. Results are aligned with {@code products}.
+     */
+    @Transactional
+    public List<BatchItemResult> updateProducts(List<ProductEntity> products) {
+        log.debug("Updating batch of {} products", products.size());
+        Set<Long> ids = products.stream()
+                .map(ProductEntity::getId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Map<Long, ProductEntity> existingProducts = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ProductEntity::getId, Function.identity()));
+
+        List<BatchItemResult> results = new ArrayList<>(products.size());
+        Set<Long> updatedIds = new HashSet<>();
+        for (int i = 0; i < products.size(); i++) {
+            ProductEntity product = products.get(i);
+            ProductEntity existingProduct = product.getId() == null ? null : existingProducts.get(product.getId());
+            if (product.getId() == null || !isValid(product)) {
+                results.add(BatchItemResult.failed(i, product.getId(),
+                        "id, name and a valid price are required"));
+            } else if (existingProduct == null) {
+                results.add(BatchItemResult.of(i, product.getId(), BatchItemResult.Status.NOT_FOUND));
+            } else {
+                existingProduct.setName(product.getName());
+                existingProduct.setDescription(product.getDescription());
+                existingProduct.setPrice(Prices.normalize(product.getPrice()));
+                updatedIds.add(product.getId());
+                results.add(BatchItemResult.of(i, product.getId(), BatchItemResult.Status.UPDATED));
+            }
+        }
+        productChangeService.recordAll(updatedIds, ProductChangeEntity.Type.UPSERT);
+        afterCommit(() -> {
+            productCache.evictAll(updatedIds);
+            productChangeService.notifyChanged();
+            invalidatePages();
+        });
+        log.info("Updated {} of {} products", updatedIds.size(), products.size());
+        return results;
+    }
+
+    /**
+     * Deletes all existing ids with a single statement. Results are aligned
+     * with {@code ids}.
+     */
+    @Transactional
+    public List<BatchItemResult> deleteProducts(List<Long> ids) {
+        log.debug("Deleting batch of {} products", ids.size());
+        Set<Long> existingIds = new HashSet<>(productRepository.findExistingIds(
+                ids.stream().filter(id -> id != null).collect(Collectors.toSet())));
+        productRepository.deleteAllByIdInBatch(existingIds);
+
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results.add(BatchItemResult.failed(i, null, "id is required"));
+            } else {
+                results.add(BatchItemResult.of(i, id, existingIds.contains(id)
+                        ? BatchItemResult.Status.DELETED
+                        : BatchItemResult.Status.NOT_FOUND));
+            }
+        }
+        productChangeService.recordAll(existingIds, ProductChangeEntity.Type.DELETE);
+        afterCommit(() -> {
+            productCache.evictAll(existingIds);
+            productCounter.invalidate();
+            productChangeService.notifyChanged();
+            invalidatePages();
+        });
+        log.info("Deleted {} of {} products", existingIds.size(), ids.size());
+        return results;
+    }
+
+    private boolean isValid(ProductEntity product) {
+        return product.getName() != null && Prices.isValid(product.getPrice());
+    }
+
+    /**
+     * Drops every shared or stored listing result, which a write may have
+     * made stale.
+     */
+    private void invalidatePages() {
+        pageCoalescer.invalidateAll();
+        pageCache.invalidateAll();
+    }
+
+    /**
+     * Runs {@code action} once the surrounding transaction commits, so caches
+     * are never cleared before readers can see the new data.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
\ No newline at end of file
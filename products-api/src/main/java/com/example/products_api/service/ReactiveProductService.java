@@ -0,0 +1,249 @@
+package com.example.products_api.service;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+import static org.springframework.data.relational.core.query.Query.query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.example.products_api.dto.ProductPatch;
+import com.example.products_api.entity.ProductChangeEntity;
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.exception.InvalidLookupException;
+import com.example.products_api.exception.InvalidWriteException;
+import com.example.products_api.exception.PreconditionFailedException;
+import com.example.products_api.exception.ProductNotFoundException;
+import com.example.products_api.utils.PageLimits;
+import com.example.products_api.utils.PagedResponse;
+import com.example.products_api.utils.PriceRange;
+import com.example.products_api.utils.Prices;
+import com.example.products_api.utils.ProductSort;
+
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Non-blocking counterpart of {@link ProductService} for the {@code reactive}
+ * profile. Every operation is a single statement over R2DBC, so no request
+ * ever holds a thread while waiting on the database.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveProductService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveProductService.class);
+
+    private static final String UPDATE = "UPDATE products SET name = COALESCE(:name, name), "
+            + "description = COALESCE(:description, description), price = COALESCE(:price, price), "
+            + "version = version + 1, last_modified = :lastModified WHERE id = :id";
+
+    private static final String REPLACE = "UPDATE products SET name = :name, description = :description, "
+            + "price = :price, version = version + 1, last_modified = :lastModified WHERE id = :id";
+
+    private final R2dbcEntityTemplate template;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveProductService(R2dbcEntityTemplate template, TransactionalOperator transactionalOperator) {
+        this.template = template;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    /**
+     * Offset listing with the same response shape as the JPA profile.
+     * {@link CountStrategy#NONE} skips the count query; the cached and
+     * estimated strategies count exactly here, so a bounded price range is
+     * counted like the whole table.
+     */
+    public Mono<PagedResponse<ProductEntity>> getProducts(int page, int size, String sortBy, String sortDir,
+            CountStrategy countStrategy, PriceRange priceRange) {
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching products - page: {}, size: {}, sortBy: {}, sortDir: {}, count: {}, price: {}", page,
+                    size, sortBy, sortDir, countStrategy, priceRange);
+        }
+
+        PageLimits.checkSize(size);
+        Sort sort = ProductSort.of(sortBy, sortDir);
+        long offset = (long) (page - 1) * size;
+        Query filter = priceRange.isBounded()
+                ? query(where("price").between(priceRange.lower(), priceRange.upper()))
+                : Query.empty();
+        // One extra row tells whether another page exists without counting.
+        Mono<List<ProductEntity>> rows = template.select(ProductEntity.class)
+                .matching(filter.sort(sort).offset(offset).limit(size + 1))
+                .all()
+                .collectList();
+
+        if (countStrategy == CountStrategy.NONE) {
+            return rows.map(products -> new PagedResponse<>(products.subList(0, Math.min(size, products.size())),
+                    null, null, products.size() > size));
+        }
+        return Mono.zip(rows, template.count(filter, ProductEntity.class))
+                .map(result -> {
+                    List<ProductEntity> products = result.getT1();
+                    long total = result.getT2();
+                    return new PagedResponse<>(products.subList(0, Math.min(size, products.size())), total,
+                            (int) ((total + size - 1) / size), products.size() > size);
+                });
+    }
+
+    /**
+     * Products with the given ids, keyed by id, in one IN query. Ids that do
+     * not exist have no entry.
+     */
+    public Mono<Map<Long, ProductEntity>> getProductsByIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > PageLimits.MAX_SIZE) {
+            return Mono.error(new InvalidLookupException(
+                    "Between 1 and " + PageLimits.MAX_SIZE + " ids can be looked up at once, got " + ids.size()));
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            return Mono.error(new InvalidLookupException("ids must not contain empty values"));
+        }
+        log.debug("Looking up {} products by id", ids.size());
+        return template.select(ProductEntity.class)
+                .matching(query(where("id").in(new LinkedHashSet<>(ids))))
+                .all()
+                .collectMap(ProductEntity::getId);
+    }
+
+    public Mono<ProductEntity> getProductById(Long id) {
+        log.debug("Fetching product with ID: {}", id);
+        return template.selectOne(query(where("id").is(id)), ProductEntity.class)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.debug("Product with ID {} not found", id);
+                    return new ProductNotFoundException(id);
+                }));
+    }
+
+    /**
+     * Takes the id from the same sequence Hibernate allocates from. Hibernate
+     * reserves a block of ids per sequence value (pooled-lo), and this uses a
+     * value as a single id, so the two never collide.
+     */
+    public Mono<ProductEntity> createProduct(ProductEntity product) {
+        log.debug("Creating new product: {}", product);
+        product.setPrice(Prices.normalize(product.getPrice()));
+        return template.getDatabaseClient()
+                .sql("SELECT nextval('products_seq')")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> {
+                    product.setId(id);
+                    product.setVersion(0L);
+                    product.setLastModified(Instant.now());
+                    return template.insert(product);
+                })
+                .flatMap(savedProduct -> recordChange(savedProduct.getId(), ProductChangeEntity.Type.UPSERT)
+                        .thenReturn(savedProduct))
+                .as(transactionalOperator::transactional)
+                .doOnNext(savedProduct -> log.debug("Product created with ID: {}", savedProduct.getId()));
+    }
+
+    /**
+     * Replaces the product's fields, so a null description clears it. Bumps
+     * the version and modification time like JPA does, so ETags handed out by
+     * the servlet stack stay valid across both variants. With an
+     * {@code expectedVersion} the update only applies to that version.
+     */
+    public Mono<ProductEntity> updateProduct(Long id, ProductEntity product, Long expectedVersion) {
+        log.debug("Updating product with ID: {}", id);
+        if (product.getName() == null) {
+            return Mono.error(new InvalidWriteException("name is required"));
+        }
+        return applyUpdate(REPLACE, id, new ProductPatch(product.getName(), product.getDescription(),
+                Prices.normalize(product.getPrice())), expectedVersion);
+    }
+
+    /**
+     * Changes only the fields present in {@code patch}, with the same
+     * {@code expectedVersion} check as {@link #updateProduct}.
+     */
+    public Mono<ProductEntity> patchProduct(Long id, ProductPatch patch, Long expectedVersion) {
+        log.debug("Patching product with ID: {}", id);
+        BigDecimal price = patch.price() == null ? null : Prices.normalize(patch.price());
+        return applyUpdate(UPDATE, id, new ProductPatch(patch.name(), patch.description(), price), expectedVersion);
+    }
+
+    /**
+     * Runs the UPDATE with the version check in its WHERE clause. Only when
+     * nothing matched is the product looked up again, to tell a missing
+     * product from a stale version.
+     */
+    private Mono<ProductEntity> applyUpdate(String statement, Long id, ProductPatch values, Long expectedVersion) {
+        GenericExecuteSpec update = template.getDatabaseClient()
+                .sql(expectedVersion == null ? statement : statement + " AND version = :expectedVersion")
+                .bind("name", Parameter.fromOrEmpty(values.name(), String.class))
+                .bind("description", Parameter.fromOrEmpty(values.description(), String.class))
+                .bind("price", Parameter.fromOrEmpty(values.price(), BigDecimal.class))
+                .bind("lastModified", Instant.now())
+                .bind("id", id);
+        if (expectedVersion != null) {
+            update = update.bind("expectedVersion", expectedVersion);
+        }
+        return update.fetch()
+                .rowsUpdated()
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        return missingOrStale(id, expectedVersion);
+                    }
+                    return recordChange(id, ProductChangeEntity.Type.UPSERT).then(getProductById(id));
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(updatedProduct -> log.debug("Product updated: {}", updatedProduct));
+    }
+
+    private Mono<ProductEntity> missingOrStale(Long id, Long expectedVersion) {
+        Mono<Boolean> exists = expectedVersion == null
+                ? Mono.just(false)
+                : template.exists(query(where("id").is(id)), ProductEntity.class);
+        return exists.flatMap(stale -> {
+            if (stale) {
+                log.debug("Product with ID {} is not at version {}", id, expectedVersion);
+                return Mono.error(new PreconditionFailedException(id));
+            }
+            log.debug("Product with ID {} not found for update", id);
+            return Mono.error(new ProductNotFoundException(id));
+        });
+    }
+
+    public Mono<Void> deleteProduct(Long id) {
+        log.debug("Deleting product with ID: {}", id);
+        return template.delete(query(where("id").is(id)), ProductEntity.class)
+                .flatMap(deleted -> {
+                    if (deleted == 0) {
+                        log.debug("Product with ID {} not found for deletion", id);
+                        return Mono.error(new ProductNotFoundException(id));
+                    }
+                    return recordChange(id, ProductChangeEntity.Type.DELETE);
+                })
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(ignored -> log.debug("Product with ID {} deleted successfully", id));
+    }
+
+    /**
+     * Appends to the change log served by the servlet stack, so mirrors stay
+     * complete whichever variant handled the write.
+     */
+    private Mono<Void> recordChange(Long productId, ProductChangeEntity.Type type) {
+        return template.getDatabaseClient()
+                .sql("INSERT INTO product_changes (id, product_id, type, changed_at) "
+                        + "VALUES (nextval('product_changes_seq'), :productId, :type, :changedAt)")
+                .bind("productId", productId)
+                .bind("type", type.name())
+                .bind("changedAt", Instant.now())
+                .then();
+    }
+}
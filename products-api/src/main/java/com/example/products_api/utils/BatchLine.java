@@ -0,0 +1,69 @@
+package com.example.products_api.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * One item of a batch request body: either a value or the reason it could
+ * not be read.
+ */
+public record BatchLine<T>(T value, String error) {
+
+    public static <T> BatchLine<T> of(T value) {
+        return new BatchLine<>(value, null);
+    }
+
+    /**
+     * Lazily parses a newline-delimited JSON body one line at a time, so
+     * arbitrarily large uploads never have to be held in memory. Blank lines
+     * are skipped.
+     */
+    public static <T> Iterator<BatchLine<T>> readNdjson(InputStream body, ObjectReader reader) {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return new Iterator<>() {
+            private String next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public BatchLine<T> next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String line = next;
+                next = advance();
+                try {
+                    return of(reader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    return new BatchLine<>(null, "Malformed line: " + e.getOriginalMessage());
+                }
+            }
+
+            private String advance() {
+                try {
+                    String line;
+                    while ((line = lines.readLine()) != null) {
+                        if (!line.isBlank()) {
+                            return line;
+                        }
+                    }
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+}
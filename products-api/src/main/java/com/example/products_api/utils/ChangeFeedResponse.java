@@ -0,0 +1,34 @@
+package com.example.products_api.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.example.products_api.entity.ProductChangeEntity;
+
+/**
+ * Slice of the product change log. Pass {@code nextSince} back as
+ * {@code since} to continue; {@code hasMore} tells whether more changes are
+ * already available.
+ */
+public record ChangeFeedResponse<T>(
+                List<Change<T>> changes,
+                long nextSince,
+                boolean hasMore) {
+
+        /**
+         * Latest state of one product: its current content for
+         * {@code UPSERT}, a tombstone without content for {@code DELETE}.
+         */
+        public record Change<T>(long position, ProductChangeEntity.Type type, Long productId, T product) {
+        }
+
+        public <R> ChangeFeedResponse<R> map(Function<? super T, ? extends R> mapper) {
+                List<Change<R>> mappedChanges = new ArrayList<>(changes.size());
+                for (Change<T> change : changes) {
+                        mappedChanges.add(new Change<>(change.position(), change.type(), change.productId(),
+                                        change.product() == null ? null : mapper.apply(change.product())));
+                }
+                return new ChangeFeedResponse<>(mappedChanges, nextSince, hasMore);
+        }
+}
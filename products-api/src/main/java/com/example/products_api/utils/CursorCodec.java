@@ -0,0 +1,62 @@
+package com.example.products_api.utils;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Map;
+
+import com.example.products_api.exception.InvalidCursorException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Encodes keyset positions as opaque, URL-safe cursor tokens. Integral values
+ * are always decoded as {@link Long} and decimals as {@link java.math.BigDecimal},
+ * so ids and prices round-trip with their original type.
+ */
+public final class CursorCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(DeserializationFeature.USE_LONG_FOR_INTS)
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private static final TypeReference<Map<String, Object>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Map<String, ?> keys) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(keys));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    public static Map<String, Object> decode(String cursor) {
+        try {
+            return MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Decodes {@code cursor} and checks that it holds exactly the keys of
+     * {@code keyTypes}, each a non-null value of the given type, so a cursor
+     * from another sort or one that was tampered with is rejected up front.
+     */
+    public static Map<String, Object> decode(String cursor, Map<String, Class<?>> keyTypes) {
+        Map<String, Object> keys = decode(cursor);
+        if (!keys.keySet().equals(keyTypes.keySet())) {
+            throw new InvalidCursorException(cursor);
+        }
+        keyTypes.forEach((key, type) -> {
+            if (!type.isInstance(keys.get(key))) {
+                throw new InvalidCursorException(cursor);
+            }
+        });
+        return keys;
+    }
+}
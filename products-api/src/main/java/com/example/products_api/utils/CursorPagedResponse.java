@@ -0,0 +1,24 @@
+package com.example.products_api.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page of a keyset (cursor) listing. {@code nextCursor} is an opaque token to
+ * pass back as {@code after} to fetch the following page, or {@code null} when
+ * there are no more rows.
+ */
+public record CursorPagedResponse<T>(
+                List<T> content,
+                String nextCursor,
+                boolean hasNext) {
+
+        public <R> CursorPagedResponse<R> map(Function<? super T, ? extends R> mapper) {
+                List<R> mappedContent = new ArrayList<>(content.size());
+                for (T item : content) {
+                        mappedContent.add(mapper.apply(item));
+                }
+                return new CursorPagedResponse<>(mappedContent, nextCursor, hasNext);
+        }
+}
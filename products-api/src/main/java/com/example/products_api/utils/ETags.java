@@ -0,0 +1,93 @@
+package com.example.products_api.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.exception.PreconditionFailedException;
+
+/**
+ * Entity tags for products and pages of products. A product's tag is its
+ * version; a page's tag is a digest of the ids and versions it holds, so
+ * neither needs the serialized body.
+ * <p>
+ * Both are weak: they name the data, while the bytes vary with the
+ * negotiated format and content coding. Tomcat also refuses to compress
+ * responses with strong tags.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Weak tag of a product, such as {@code W/"3"}.
+     */
+    public static String of(Long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    /**
+     * Weak tag of a page of products. {@code pageState} carries anything else in
+     * the response that can change independently, like totals or cursors.
+     */
+    public static String of(List<ProductEntity> products, Object... pageState) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES);
+        for (ProductEntity product : products) {
+            buffer.clear();
+            buffer.putLong(product.getId() == null ? -1 : product.getId())
+                    .putLong(product.getVersion() == null ? -1 : product.getVersion());
+            digest.update(buffer.array());
+        }
+        digest.update(Arrays.toString(pageState).getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * Version named by a single product tag, weak as issued ({@code W/"3"})
+     * or strong ({@code "3"}), or {@code null} for malformed or multiple
+     * tags, which never match. The weak prefix is ignored since a version
+     * names the same data in every representation.
+     */
+    public static Long version(String etag) {
+        String tag = etag.strip();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return null;
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Version a write to product {@code id} must find, from its
+     * {@code If-Match} header: {@code null} when the header is absent or
+     * {@code *}, and 412 when it names no version the product can have.
+     */
+    public static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        Long expectedVersion = version(ifMatch);
+        if (expectedVersion == null) {
+            throw new PreconditionFailedException(id);
+        }
+        return expectedVersion;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.products_api.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.springframework.http.MediaType;
+
+import com.example.products_api.exception.InvalidExportFormatException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The formats {@code GET /api/products/export} can stream the catalog in.
+ */
+public enum ExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "products.ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "products.csv");
+
+    private final MediaType mediaType;
+    private final String filename;
+
+    ExportFormat(MediaType mediaType, String filename) {
+        this.mediaType = mediaType;
+        this.filename = filename;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String filename() {
+        return filename;
+    }
+
+    public ProductExportWriter writer(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return this == CSV ? ProductExportWriter.csv(out) : ProductExportWriter.ndjson(out, objectMapper);
+    }
+
+    /**
+     * The format named by {@code value}, ignoring case. Anything else is
+     * rejected rather than streamed in a format the client did not ask for.
+     */
+    public static ExportFormat from(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidExportFormatException(value, Arrays.stream(values())
+                .map(format -> format.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(", ", "[", "]")));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.products_api.utils;
+
+import com.example.products_api.exception.InvalidPageSizeException;
+
+/**
+ * Hard cap on listing page sizes, so a single request cannot pull the whole
+ * table through one connection. Use the export endpoint for that.
+ */
+public final class PageLimits {
+
+    public static final int MAX_SIZE = 1000;
+
+    private PageLimits() {
+    }
+
+    public static void checkSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new InvalidPageSizeException(size, MAX_SIZE);
+        }
+    }
+}
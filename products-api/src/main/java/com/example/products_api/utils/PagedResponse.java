@@ -1,18 +1,28 @@
 package com.example.products_api.utils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Page of an offset listing. {@code totalElements} and {@code totalPages} are
+ * {@code null} (and omitted from JSON) when the caller opted out of counting;
+ * {@code hasNext} is always present.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record PagedResponse<T>(
                 List<T> content,
-                long totalElements,
-                int totalPages) {
+                Long totalElements,
+                Integer totalPages,
+                boolean hasNext) {
 
         public <R> PagedResponse<R> map(Function<? super T, ? extends R> mapper) {
-                List<R> mappedContent = content.stream()
-                                .map(mapper)
-                                .collect(Collectors.toList());
-                return new PagedResponse<>(mappedContent, totalElements, totalPages);
+                List<R> mappedContent = new ArrayList<>(content.size());
+                for (T item : content) {
+                        mappedContent.add(mapper.apply(item));
+                }
+                return new PagedResponse<>(mappedContent, totalElements, totalPages, hasNext);
         }
-}
\ No newline at end of file
+}
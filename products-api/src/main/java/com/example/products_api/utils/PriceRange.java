@@ -0,0 +1,41 @@
+package com.example.products_api.utils;
+
+import java.math.BigDecimal;
+
+import com.example.products_api.exception.InvalidPriceException;
+
+/**
+ * Inclusive price filter of a listing. Open ends are {@code null}.
+ */
+public record PriceRange(BigDecimal min, BigDecimal max) {
+
+    public static final PriceRange UNBOUNDED = new PriceRange(null, null);
+
+    public static PriceRange of(BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return UNBOUNDED;
+        }
+        BigDecimal lower = min == null ? null : Prices.normalize(min);
+        BigDecimal upper = max == null ? null : Prices.normalize(max);
+        if (lower != null && upper != null && lower.compareTo(upper) > 0) {
+            throw new InvalidPriceException("minPrice must not be greater than maxPrice");
+        }
+        return new PriceRange(lower, upper);
+    }
+
+    public boolean isBounded() {
+        return min != null || max != null;
+    }
+
+    /**
+     * Lower bound for a {@code BETWEEN}; an open end becomes the smallest
+     * storable price, so the query keeps the same shape and index range scan.
+     */
+    public BigDecimal lower() {
+        return min == null ? Prices.MIN : min;
+    }
+
+    public BigDecimal upper() {
+        return max == null ? Prices.MAX : max;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.products_api.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.example.products_api.exception.InvalidPriceException;
+
+/**
+ * Prices are stored as {@code numeric(19,2)}. Values are checked against that
+ * type before they reach the database, so a price is never silently rounded.
+ */
+public final class Prices {
+
+    public static final int PRECISION = 19;
+    public static final int SCALE = 2;
+
+    public static final BigDecimal MAX = BigDecimal.TEN.pow(PRECISION - SCALE)
+            .subtract(BigDecimal.ONE.movePointLeft(SCALE));
+    public static final BigDecimal MIN = MAX.negate();
+
+    private Prices() {
+    }
+
+    public static boolean isValid(BigDecimal price) {
+        return price != null
+                && price.stripTrailingZeros().scale() <= SCALE
+                && price.abs().compareTo(MAX) <= 0;
+    }
+
+    /**
+     * Returns {@code price} at the stored scale, e.g. {@code 5} as
+     * {@code 5.00}.
+     */
+    public static BigDecimal normalize(BigDecimal price) {
+        if (price == null) {
+            throw new InvalidPriceException("price is required");
+        }
+        if (!isValid(price)) {
+            throw new InvalidPriceException("price must have at most " + (PRECISION - SCALE)
+                    + " integer digits and " + SCALE + " decimals, got " + price.toPlainString());
+        }
+        return price.setScale(SCALE, RoundingMode.UNNECESSARY);
+    }
+}
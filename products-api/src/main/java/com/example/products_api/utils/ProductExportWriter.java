@@ -0,0 +1,87 @@
+package com.example.products_api.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.example.products_api.dto.ProductDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes products one at a time to a response stream. Output is buffered and
+ * only flushed by {@link #finish()}; the underlying stream is never closed.
+ */
+public interface ProductExportWriter {
+
+    void write(ProductDTO product) throws IOException;
+
+    void finish() throws IOException;
+
+    static ProductExportWriter ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setPrettyPrinter(new MinimalPrettyPrinter(""));
+        ObjectWriter writer = objectMapper.writerFor(ProductDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return new ProductExportWriter() {
+            @Override
+            public void write(ProductDTO product) throws IOException {
+                writer.writeValue(generator, product);
+                generator.writeRaw('\n');
+            }
+
+            @Override
+            public void finish() throws IOException {
+                generator.flush();
+            }
+        };
+    }
+
+    static ProductExportWriter csv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,name,description,price\n");
+        return new ProductExportWriter() {
+            @Override
+            public void write(ProductDTO product) throws IOException {
+                writer.write(String.valueOf(product.getId()));
+                writer.write(',');
+                writeCsvField(writer, product.getName());
+                writer.write(',');
+                writeCsvField(writer, product.getDescription());
+                writer.write(',');
+                writer.write(product.getPrice().toPlainString());
+                writer.write('\n');
+            }
+
+            @Override
+            public void finish() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    /**
+     * RFC 4180 quoting: fields containing a comma, quote or line break are
+     * wrapped in quotes with inner quotes doubled.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.products_api.utils;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.exception.InvalidSortDirectionException;
+import com.example.products_api.exception.InvalidSortFieldException;
+
+/**
+ * Builds the sort of a product listing from request parameters. Only
+ * {@link ProductEntity#SORTABLE_FIELDS} are accepted, and {@code id} is
+ * appended as a tie-breaker so the order matches the {@code (field, id)}
+ * indexes and is stable across pages.
+ */
+public final class ProductSort {
+
+    private ProductSort() {
+    }
+
+    public static Sort of(String sortBy, String sortDir) {
+        if (!ProductEntity.SORTABLE_FIELDS.contains(sortBy)) {
+            throw new InvalidSortFieldException(sortBy, ProductEntity.SORTABLE_FIELDS);
+        }
+        Sort.Direction direction = Sort.Direction.fromOptionalString(sortDir)
+                .orElseThrow(() -> new InvalidSortDirectionException(sortDir));
+        Sort sort = Sort.by(direction, sortBy);
+        return sortBy.equals("id") ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * The keys, with their value types, of a keyset position in a listing
+     * sorted by {@code sortBy}: the field itself and the {@code id}
+     * tie-breaker.
+     */
+    public static Map<String, Class<?>> keyTypes(String sortBy) {
+        return switch (sortBy) {
+            case "name" -> Map.of("name", String.class, "id", Long.class);
+            case "price" -> Map.of("price", BigDecimal.class, "id", Long.class);
+            case "id" -> Map.of("id", Long.class);
+            default -> throw new InvalidSortFieldException(sortBy, ProductEntity.SORTABLE_FIELDS);
+        };
+    }
+
+    /**
+     * The keyset position of {@code product} in a listing sorted by
+     * {@code sortBy}, with the keys of {@link #keyTypes}.
+     */
+    public static Map<String, Object> keys(String sortBy, ProductEntity product) {
+        return switch (sortBy) {
+            case "name" -> Map.of("name", product.getName(), "id", product.getId());
+            case "price" -> Map.of("price", product.getPrice(), "id", product.getId());
+            case "id" -> Map.of("id", product.getId());
+            default -> throw new InvalidSortFieldException(sortBy, ProductEntity.SORTABLE_FIELDS);
+        };
+    }
+}
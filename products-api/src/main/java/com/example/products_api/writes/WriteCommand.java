@@ -0,0 +1,23 @@
+package com.example.products_api.writes;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A create or update accepted into the {@link WriteLog}; one JSON line per
+ * command. {@code productId} is null for creates.
+ */
+public record WriteCommand(
+        String trackingId,
+        String idempotencyKey,
+        Operation operation,
+        Long productId,
+        String name,
+        String description,
+        BigDecimal price,
+        Instant acceptedAt) {
+
+    public enum Operation {
+        CREATE, UPDATE
+    }
+}
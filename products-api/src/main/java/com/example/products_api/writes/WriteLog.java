@@ -0,0 +1,221 @@
+package com.example.products_api.writes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Append-only file of {@link WriteCommand}s, one JSON line each, plus a
+ * checkpoint file with the offset of the first command not yet applied.
+ * <p>
+ * {@link #append} returns once the command is on disk. Concurrent appenders
+ * share fsyncs (group commit): whoever syncs covers everything written so
+ * far. Once every command has been applied the file is truncated.
+ */
+public class WriteLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteLog.class);
+
+    /**
+     * A command and the offsets of its line in the file.
+     */
+    public record Entry(WriteCommand command, long start, long end) {
+    }
+
+    private final Path checkpointFile;
+    private final FileChannel channel;
+    private final ObjectMapper objectMapper;
+    // Locks rather than monitors, so virtual threads are not pinned across
+    // file I/O.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Queue<Entry> unapplied = new ConcurrentLinkedQueue<>();
+    private long written;
+    private volatile long synced;
+
+    public WriteLog(Path directory, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(directory);
+        this.checkpointFile = directory.resolve("checkpoint");
+        this.channel = FileChannel.open(directory.resolve("writes.log"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.objectMapper = objectMapper;
+        recover();
+    }
+
+    /**
+     * Reads the commands after the checkpoint back into the unapplied queue.
+     * A last line without its newline was torn by a crash before it was
+     * acknowledged, so it is cut off.
+     */
+    private void recover() throws IOException {
+        long size = channel.size();
+        long checkpoint = Files.exists(checkpointFile)
+                ? Long.parseLong(Files.readString(checkpointFile).strip())
+                : 0;
+        if (checkpoint > size) {
+            checkpoint = size;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (size - checkpoint));
+        channel.read(buffer, checkpoint);
+        byte[] bytes = buffer.array();
+        int lineStart = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            String line = new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8);
+            try {
+                unapplied.add(new Entry(objectMapper.readValue(line, WriteCommand.class), checkpoint + lineStart,
+                        checkpoint + i + 1));
+            } catch (IOException e) {
+                log.error("Skipping unreadable write log entry at offset {}: {}", checkpoint + lineStart, line, e);
+            }
+            lineStart = i + 1;
+        }
+        written = checkpoint + lineStart;
+        if (written < size) {
+            log.warn("Discarding {} bytes of a torn write at the end of the write log", size - written);
+            channel.truncate(written);
+        }
+        synced = written;
+        if (!unapplied.isEmpty()) {
+            log.info("Recovered {} unapplied writes from the write log", unapplied.size());
+        }
+    }
+
+    /**
+     * Appends {@code command} and returns once it is durable.
+     */
+    public Entry append(WriteCommand command) {
+        byte[] line;
+        try {
+            line = (objectMapper.writeValueAsString(command) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Entry entry;
+        writeLock.lock();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, written + buffer.position());
+            }
+            entry = new Entry(command, written, written + line.length);
+            written = entry.end();
+            // Queued under the lock, so the queue is in file order and the
+            // checkpoint never passes a line that is written but not applied.
+            unapplied.add(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+        sync(entry.end());
+        return entry;
+    }
+
+    private void sync(long position) {
+        if (synced >= position) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            writeLock.lock();
+            try {
+                target = written;
+            } finally {
+                writeLock.unlock();
+            }
+            channel.force(false);
+            synced = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Up to {@code max} durable commands not yet applied, oldest first. They
+     * stay unapplied until passed to {@link #markApplied}.
+     */
+    public List<Entry> peek(int max) {
+        List<Entry> entries = new ArrayList<>(Math.min(max, 64));
+        long durable = synced;
+        Iterator<Entry> iterator = unapplied.iterator();
+        while (entries.size() < max && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.end() > durable) {
+                break;
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Drops applied commands from the queue and moves the checkpoint to the
+     * oldest command still unapplied.
+     */
+    public void markApplied(List<Entry> entries) {
+        unapplied.removeAll(new HashSet<>(entries));
+        // Same order as sync(), which takes the write lock inside the sync lock.
+        syncLock.lock();
+        writeLock.lock();
+        try {
+            Entry oldest = unapplied.peek();
+            long checkpoint = oldest == null ? written : oldest.start();
+            if (checkpoint == written && written > 0) {
+                // Everything applied: start the file over.
+                channel.truncate(0);
+                written = 0;
+                synced = 0;
+                checkpoint = 0;
+            }
+            writeCheckpoint(checkpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    private void writeCheckpoint(long checkpoint) throws IOException {
+        Path temporary = checkpointFile.resolveSibling("checkpoint.tmp");
+        Files.writeString(temporary, Long.toString(checkpoint), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        Files.move(temporary, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public int unappliedCount() {
+        return unapplied.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,8 @@
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS products (
+    id bigint NOT NULL PRIMARY KEY,
+    name varchar(255) NOT NULL,
+    description varchar(255) NOT NULL,
+    price float(53) NOT NULL
+);
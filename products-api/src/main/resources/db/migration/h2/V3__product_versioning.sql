@@ -0,0 +1,3 @@
+-- V2 (trigram search indexes) only exists for PostgreSQL.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version bigint;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS last_modified timestamp(6) with time zone;
@@ -0,0 +1,5 @@
+-- One (field, id) index per sortable field of ProductEntity: listings read
+-- pages in index order (forwards or backwards) and the id tie-breaker keeps
+-- the order stable for offset and keyset pagination.
+CREATE INDEX IF NOT EXISTS products_name_id_idx ON products (name, id);
+CREATE INDEX IF NOT EXISTS products_price_id_idx ON products (price, id);
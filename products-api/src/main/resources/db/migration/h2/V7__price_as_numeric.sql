@@ -0,0 +1 @@
+ALTER TABLE products ALTER COLUMN price SET DATA TYPE numeric(19, 2);
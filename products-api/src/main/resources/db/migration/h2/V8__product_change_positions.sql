@@ -0,0 +1,12 @@
+ALTER SEQUENCE product_changes_seq INCREMENT BY 50;
+
+ALTER TABLE product_changes ADD COLUMN position bigint;
+UPDATE product_changes SET position = id;
+CREATE UNIQUE INDEX product_changes_position_idx ON product_changes (position);
+
+CREATE TABLE product_change_positions (
+    id int NOT NULL PRIMARY KEY CHECK (id = 1),
+    last_position bigint NOT NULL
+);
+INSERT INTO product_change_positions (id, last_position)
+SELECT 1, COALESCE(MAX(position), 0) FROM product_changes;
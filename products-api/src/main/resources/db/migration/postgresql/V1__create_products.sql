@@ -0,0 +1,17 @@
+-- Baseline of the schema Hibernate used to maintain with ddl-auto=update.
+-- Every statement is a no-op on a database that already has it.
+
+-- Hibernate takes blocks of 50 ids per sequence value (pooled-lo).
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS products (
+    id bigint NOT NULL PRIMARY KEY,
+    name varchar(255) NOT NULL,
+    description varchar(255) NOT NULL,
+    price float(53) NOT NULL
+);
+
+-- Ids used to come from an IDENTITY column. Move products_seq past them once,
+-- before the first pooled block is handed out.
+SELECT setval('products_seq', (SELECT MAX(id) FROM products))
+WHERE (SELECT MAX(id) FROM products) >= (SELECT last_value FROM products_seq);
@@ -0,0 +1,5 @@
+-- Trigram indexes serve the case-insensitive substring search (ILIKE '%text%')
+-- of GET /api/products/search on both columns.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS products_name_trgm_idx ON products USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS products_description_trgm_idx ON products USING gin (description gin_trgm_ops);
@@ -0,0 +1,7 @@
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version bigint;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS last_modified timestamp(6) with time zone;
+
+-- Rows written before optimistic locking was added have no version; JPA would
+-- take them for new entities. Start them at 0.
+UPDATE products SET version = 0 WHERE version IS NULL;
+UPDATE products SET last_modified = now() WHERE last_modified IS NULL;
@@ -0,0 +1,9 @@
+-- Unpooled so positions grow in write order across replicas.
+CREATE SEQUENCE IF NOT EXISTS product_changes_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS product_changes (
+    id bigint NOT NULL PRIMARY KEY,
+    product_id bigint NOT NULL,
+    type varchar(16) NOT NULL CHECK (type IN ('UPSERT', 'DELETE')),
+    changed_at timestamp(6) with time zone NOT NULL
+);
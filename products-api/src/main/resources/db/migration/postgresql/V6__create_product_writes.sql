@@ -0,0 +1,10 @@
+-- Outcomes of writes accepted asynchronously (Prefer: respond-async).
+CREATE TABLE IF NOT EXISTS product_writes (
+    tracking_id varchar(36) NOT NULL PRIMARY KEY,
+    idempotency_key varchar(255) UNIQUE,
+    status varchar(16) NOT NULL CHECK (status IN ('PENDING', 'APPLIED', 'FAILED')),
+    product_id bigint,
+    error varchar(255),
+    completed_at timestamp(6) with time zone NOT NULL
+);
+CREATE INDEX IF NOT EXISTS product_writes_completed_at_idx ON product_writes (completed_at);
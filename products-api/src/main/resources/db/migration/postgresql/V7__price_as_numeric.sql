@@ -0,0 +1,5 @@
+-- Prices become fixed-point: numeric(19,2) stores cents exactly, where
+-- float(53) rounded them. Existing values are rounded to the cent once here.
+-- The type change rewrites the table and rebuilds products_price_id_idx under
+-- an exclusive lock; run it in a maintenance window on large catalogs.
+ALTER TABLE products ALTER COLUMN price TYPE numeric(19, 2) USING round(price::numeric, 2);
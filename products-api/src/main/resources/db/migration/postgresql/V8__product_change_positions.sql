@@ -0,0 +1,18 @@
+-- Change log ids come from a pooled sequence, so they no longer follow the
+-- order writes commit in. Feed positions are assigned after commit instead,
+-- in commit order, by ProductChangeService; product_change_positions holds
+-- the last one handed out and its row lock serializes the assignment.
+ALTER SEQUENCE product_changes_seq INCREMENT BY 50;
+
+ALTER TABLE product_changes ADD COLUMN position bigint;
+-- Existing entries keep their id as position, so clients' cursors stay valid.
+UPDATE product_changes SET position = id;
+CREATE UNIQUE INDEX product_changes_position_idx ON product_changes (position);
+CREATE INDEX product_changes_unpositioned_idx ON product_changes (id) WHERE position IS NULL;
+
+CREATE TABLE product_change_positions (
+    id int NOT NULL PRIMARY KEY CHECK (id = 1),
+    last_position bigint NOT NULL
+);
+INSERT INTO product_change_positions (id, last_position)
+SELECT 1, COALESCE(MAX(position), 0) FROM product_changes;
@@ -0,0 +1,2 @@
+-- A PUT replaces every field, so sending no description clears it.
+ALTER TABLE products ALTER COLUMN description DROP NOT NULL;
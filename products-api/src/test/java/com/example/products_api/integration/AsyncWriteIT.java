@@ -0,0 +1,162 @@
+package com.example.products_api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpStatus.ACCEPTED;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+import com.example.products_api.dto.ProductDTO;
+import com.example.products_api.dto.WriteStatus;
+import com.example.products_api.writes.WriteCommand;
+import com.example.products_api.writes.WriteLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = com.example.products_api.ProductsApiApplication.class,
+        properties = { "products.async-writes.enabled=true",
+                "products.async-writes.flush-interval=50ms" })
+@ActiveProfiles("test")
+class AsyncWriteIT {
+
+    private static final String POISON_TRACKING_ID = "00000000-0000-0000-0000-000000000001";
+    private static final String AFTER_POISON_TRACKING_ID = "00000000-0000-0000-0000-000000000002";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    /**
+     * Starts from a log left by an earlier run holding a write the database
+     * rejects (a name longer than its column) followed by a valid one.
+     */
+    @DynamicPropertySource
+    static void writeLog(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("write-log-it");
+        try (WriteLog writeLog = new WriteLog(directory, new ObjectMapper().findAndRegisterModules())) {
+            writeLog.append(new WriteCommand(POISON_TRACKING_ID, null, WriteCommand.Operation.CREATE, null,
+                    "x".repeat(300), "Too long for its column", new BigDecimal("1.00"), Instant.now()));
+            writeLog.append(new WriteCommand(AFTER_POISON_TRACKING_ID, null, WriteCommand.Operation.CREATE, null,
+                    "Queued Lamp", "Queued after the poison write", new BigDecimal("20.00"), Instant.now()));
+        }
+        registry.add("products.async-writes.directory", directory::toString);
+    }
+
+    @Test
+    void testAsyncCreateAndUpdate() throws InterruptedException {
+        ResponseEntity<WriteStatus> created = restTemplate.postForEntity("/api/products",
+                async(new ProductDTO(null, "Tablet", "Android Tablet", new BigDecimal("300.00")), null),
+                WriteStatus.class);
+
+        assertThat(created.getStatusCode()).isEqualTo(ACCEPTED);
+        assertThat(created.getBody().status()).isEqualTo(WriteStatus.Status.PENDING);
+        WriteStatus applied = awaitCompletion(created.getHeaders().getLocation().getPath());
+        assertThat(applied.status()).isEqualTo(WriteStatus.Status.APPLIED);
+        Long id = applied.productId();
+        assertThat(restTemplate.getForObject("/api/products/" + id, ProductDTO.class).getName()).isEqualTo("Tablet");
+
+        ResponseEntity<WriteStatus> updated = restTemplate.exchange("/api/products/" + id, HttpMethod.PUT,
+                async(new ProductDTO(id, "Tablet Pro", "Android Tablet", new BigDecimal("450.00")), null),
+                WriteStatus.class);
+
+        assertThat(updated.getStatusCode()).isEqualTo(ACCEPTED);
+        assertThat(awaitCompletion(updated.getHeaders().getLocation().getPath()).status())
+                .isEqualTo(WriteStatus.Status.APPLIED);
+        assertThat(restTemplate.getForObject("/api/products/" + id, ProductDTO.class).getName())
+                .isEqualTo("Tablet Pro");
+    }
+
+    @Test
+    void testIdempotencyKeyAppliesOnce() throws InterruptedException {
+        HttpEntity<ProductDTO> request = async(new ProductDTO(null, "Phone", "Android Phone", new BigDecimal("200.00")),
+                "create-phone-1");
+
+        WriteStatus first = restTemplate.postForObject("/api/products", request, WriteStatus.class);
+        WriteStatus duplicate = restTemplate.postForObject("/api/products", request, WriteStatus.class);
+        WriteStatus applied = awaitCompletion("/api/products/writes/" + first.trackingId());
+        WriteStatus afterApplied = restTemplate.postForObject("/api/products", request, WriteStatus.class);
+
+        assertThat(duplicate.trackingId()).isEqualTo(first.trackingId());
+        assertThat(afterApplied).isEqualTo(applied);
+    }
+
+    @Test
+    void testUpdateOfMissingProductFails() throws InterruptedException {
+        ResponseEntity<WriteStatus> updated = restTemplate.exchange("/api/products/999999", HttpMethod.PUT,
+                async(new ProductDTO(999999L, "Ghost", "Missing", new BigDecimal("1.00")), null), WriteStatus.class);
+
+        WriteStatus failed = awaitCompletion(updated.getHeaders().getLocation().getPath());
+        assertThat(failed.status()).isEqualTo(WriteStatus.Status.FAILED);
+        assertThat(failed.error()).contains("999999");
+    }
+
+    @Test
+    void testPoisonWriteDoesNotBlockLaterWrites() throws InterruptedException {
+        WriteStatus poison = awaitCompletion("/api/products/writes/" + POISON_TRACKING_ID);
+        WriteStatus afterPoison = awaitCompletion("/api/products/writes/" + AFTER_POISON_TRACKING_ID);
+
+        assertThat(poison.status()).isEqualTo(WriteStatus.Status.FAILED);
+        assertThat(poison.error()).isNotBlank();
+        assertThat(afterPoison.status()).isEqualTo(WriteStatus.Status.APPLIED);
+        assertThat(restTemplate.getForObject("/api/products/" + afterPoison.productId(), ProductDTO.class).getName())
+                .isEqualTo("Queued Lamp");
+    }
+
+    @Test
+    void testInvalidWriteIsRejected() {
+        ResponseEntity<Map> longName = restTemplate.postForEntity("/api/products",
+                async(new ProductDTO(null, "x".repeat(256), "Too long", new BigDecimal("1.00")), null), Map.class);
+        ResponseEntity<Map> noName = restTemplate.postForEntity("/api/products",
+                async(new ProductDTO(null, null, "Desk lamp", new BigDecimal("1.00")), null), Map.class);
+        ResponseEntity<Map> longIdempotencyKey = restTemplate.postForEntity("/api/products",
+                async(new ProductDTO(null, "Lamp", "Desk lamp", new BigDecimal("1.00")), "k".repeat(256)), Map.class);
+
+        assertThat(longName.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(longName.getBody().get("details").toString()).contains("name");
+        assertThat(noName.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(longIdempotencyKey.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
+
+    @Test
+    void testUnknownTrackingId() {
+        ResponseEntity<Map> response = restTemplate.getForEntity("/api/products/writes/unknown", Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(NOT_FOUND);
+    }
+
+    private static <T> HttpEntity<T> async(T body, String idempotencyKey) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Prefer", "respond-async");
+        if (idempotencyKey != null) {
+            headers.set("Idempotency-Key", idempotencyKey);
+        }
+        return new HttpEntity<>(body, headers);
+    }
+
+    private WriteStatus awaitCompletion(String location) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            WriteStatus status = restTemplate.getForObject(location, WriteStatus.class);
+            if (status.status() != WriteStatus.Status.PENDING) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Write at " + location + " still pending");
+    }
+}
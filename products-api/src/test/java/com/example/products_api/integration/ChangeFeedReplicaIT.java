@@ -0,0 +1,82 @@
+package com.example.products_api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.products_api.entity.ProductChangeEntity;
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.service.ProductChangeService;
+import com.example.products_api.service.ProductService;
+import com.example.products_api.utils.ChangeFeedResponse;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The change feed with reads routed to a replica that has not replayed the
+ * latest writes yet: a second H2 database with the schema but none of the
+ * rows, which the test copies over to let it catch up.
+ */
+@SpringBootTest(classes = com.example.products_api.ProductsApiApplication.class,
+        properties = "products.datasource.replica-urls=" + ChangeFeedReplicaIT.REPLICA_URL)
+@ActiveProfiles("test")
+class ChangeFeedReplicaIT {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:change-feed-replica;DB_CLOSE_DELAY=-1";
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductChangeService productChangeService;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load()
+                .migrate();
+    }
+
+    @Test
+    void testLaggingReplicaDoesNotReportDeletes() {
+        ProductEntity product = productService.createProduct(
+                new ProductEntity("Replicated Lamp", "Feed", new BigDecimal("15.00")));
+        productChangeService.assignPositions();
+
+        ChangeFeedResponse<ProductEntity> lagging = productChangeService.getChanges(0, 1000);
+
+        assertThat(lagging.changes()).isEmpty();
+        assertThat(lagging.nextSince()).isZero();
+
+        copyToReplica("products", "id", product.getId());
+        copyToReplica("product_changes", "product_id", product.getId());
+        ChangeFeedResponse<ProductEntity> caughtUp = productChangeService.getChanges(0, 1000);
+
+        assertThat(caughtUp.changes()).singleElement().satisfies(change -> {
+            assertThat(change.productId()).isEqualTo(product.getId());
+            assertThat(change.type()).isEqualTo(ProductChangeEntity.Type.UPSERT);
+            assertThat(change.product().getName()).isEqualTo("Replicated Lamp");
+        });
+    }
+
+    private void copyToReplica(String table, String column, Object value) {
+        for (Map<String, Object> row : primary.queryForList(
+                "SELECT * FROM " + table + " WHERE " + column + " = ?", value)) {
+            replica.update("INSERT INTO " + table + " (" + String.join(", ", row.keySet()) + ") VALUES ("
+                    + row.keySet().stream().map(key -> "?").collect(Collectors.joining(", ")) + ")",
+                    row.values().toArray());
+        }
+    }
+}
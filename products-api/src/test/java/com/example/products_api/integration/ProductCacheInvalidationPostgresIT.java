@@ -0,0 +1,180 @@
+package com.example.products_api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.example.products_api.cache.PostgresProductCacheInvalidationBus;
+import com.example.products_api.cache.ProductCache;
+import com.example.products_api.cache.ProductCacheInvalidationBus;
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.service.ProductService;
+
+/**
+ * Cache invalidations shared through {@code LISTEN/NOTIFY}. A second bus on
+ * its own connection plays the other replica. Skipped when no Docker daemon
+ * is available.
+ */
+@SpringBootTest(classes = com.example.products_api.ProductsApiApplication.class,
+        properties = "products.cache.invalidation=postgres")
+@ActiveProfiles("test")
+@EnabledIf("dockerAvailable")
+class ProductCacheInvalidationPostgresIT {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(15);
+    private static final Object INVALIDATE_ALL = "*";
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @Autowired
+    private ProductCacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PostgresProductCacheInvalidationBus peer;
+
+    static boolean dockerAvailable() {
+        return DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>("postgres:14");
+            postgres.start();
+        }
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @AfterEach
+    void stopPeer() {
+        if (peer != null) {
+            peer.stop();
+        }
+    }
+
+    @Test
+    void testPublishReachesOtherReplicas() throws InterruptedException {
+        BlockingQueue<Object> received = startPeer();
+
+        invalidationBus.publish(List.of(11L, 12L));
+
+        assertThat(received.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isEqualTo(List.of(11L, 12L));
+    }
+
+    @Test
+    void testOversizedPublishInvalidatesEverything() throws InterruptedException {
+        BlockingQueue<Object> received = startPeer();
+
+        // 2000 eight-digit ids do not fit the 8000-byte NOTIFY payload.
+        invalidationBus.publish(LongStream.range(10_000_000, 10_002_000).boxed().toList());
+
+        assertThat(received.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isEqualTo(INVALIDATE_ALL);
+    }
+
+    @Test
+    void testInvalidationFromAnotherReplicaEvictsCachedProduct() throws InterruptedException {
+        startPeer();
+        ProductEntity product = cachedProduct("Notified Lamp");
+
+        peer.publish(product.getId());
+
+        awaitUntil(() -> productCache.getIfPresent(product.getId()) == null);
+    }
+
+    @Test
+    void testReconnectClearsCache() throws InterruptedException {
+        ProductEntity product = cachedProduct("Reconnected Lamp");
+
+        // Invalidations sent while the listener is down are lost, so it has to
+        // drop everything once it listens again.
+        Integer terminated = jdbcTemplate.queryForObject("SELECT count(pg_terminate_backend(pid)) "
+                + "FROM pg_stat_activity WHERE query = 'LISTEN product_cache_invalidation'", Integer.class);
+
+        // A stopped peer may still hold its connection until its next poll.
+        assertThat(terminated).isPositive();
+        awaitUntil(() -> productCache.getIfPresent(product.getId()) == null);
+        ProductEntity reloaded = cachedProduct("Reconnected Lamp again");
+        startPeer();
+        peer.publish(reloaded.getId());
+        awaitUntil(() -> productCache.getIfPresent(reloaded.getId()) == null);
+    }
+
+    /**
+     * Starts the peer bus and returns what it receives, once it is listening.
+     */
+    private BlockingQueue<Object> startPeer() throws InterruptedException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(),
+                postgres.getUsername(), postgres.getPassword());
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        peer = new PostgresProductCacheInvalidationBus(new JdbcTemplate(dataSource), dataSource);
+        peer.subscribe(new ProductCacheInvalidationBus.Listener() {
+            @Override
+            public void onInvalidate(Long id) {
+                received.add(List.of(id));
+            }
+
+            @Override
+            public void onInvalidate(Collection<Long> ids) {
+                received.add(List.copyOf(ids));
+            }
+
+            @Override
+            public void onInvalidateAll() {
+                received.add(INVALIDATE_ALL);
+            }
+        });
+        peer.start();
+        // The bus invalidates everything right after its LISTEN.
+        assertThat(received.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isEqualTo(INVALIDATE_ALL);
+        return received;
+    }
+
+    private ProductEntity cachedProduct(String name) {
+        ProductEntity created = productService.createProduct(
+                new ProductEntity(name, "Cache bus", new BigDecimal("20.00")));
+        productService.getProductById(created.getId());
+        assertThat(productCache.getIfPresent(created.getId())).isNotNull();
+        return created;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", TIMEOUT).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
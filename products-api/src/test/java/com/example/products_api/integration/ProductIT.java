@@ -5,16 +5,47 @@ import static org.springframework.boot.test.context.SpringBootTest.WebEnvironmen
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
 
+import com.example.products_api.dto.BatchItemResult;
+import com.example.products_api.dto.BatchReport;
 import com.example.products_api.dto.ProductDTO;
+import com.example.products_api.dto.ProductLookupItem;
+import com.example.products_api.dto.ProductLookupResponse;
+import com.example.products_api.entity.ProductChangeEntity;
+import com.example.products_api.utils.ChangeFeedResponse;
+import com.example.products_api.utils.CursorCodec;
+import com.example.products_api.utils.CursorPagedResponse;
+import com.example.products_api.utils.PagedResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest(webEnvironment = RANDOM_PORT, classes = com.example.products_api.ProductsApiApplication.class)
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = com.example.products_api.ProductsApiApplication.class,
+        properties = "products.rate-limit.quotas=limited-client:0.5")
 @ActiveProfiles("test")
+@AutoConfigureObservability
 class ProductIT {
 
     @Autowired
@@ -22,7 +53,7 @@ class ProductIT {
 
     @Test
     void testCreateAndGetProduct() {
-        ProductDTO newProduct = new ProductDTO(null, "Tablet", "Android Tablet", 300.0);
+        ProductDTO newProduct = new ProductDTO(null, "Tablet", "Android Tablet", new BigDecimal("300.00"));
         ResponseEntity<ProductDTO> createResponse = restTemplate.postForEntity(
                 "/api/products", newProduct, ProductDTO.class);
 
@@ -42,7 +73,7 @@ class ProductIT {
 
     @Test
     void testUpdateProduct() {
-        ProductDTO newProduct = new ProductDTO(null, "Tablet", "Android Tablet", 300.0);
+        ProductDTO newProduct = new ProductDTO(null, "Tablet", "Android Tablet", new BigDecimal("300.00"));
         ResponseEntity<ProductDTO> createResponse = restTemplate.postForEntity(
                 "/api/products", newProduct, ProductDTO.class);
 
@@ -51,7 +82,8 @@ class ProductIT {
         assertThat(createdProduct).isNotNull();
         assertThat(createdProduct.getName()).isEqualTo("Tablet");
 
-        ProductDTO updatedProduct = new ProductDTO(createdProduct.getId(), "iPad", "iOS Tablet", 500.0);
+        ProductDTO updatedProduct = new ProductDTO(createdProduct.getId(), "iPad", "iOS Tablet",
+                new BigDecimal("500.00"));
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         HttpEntity<ProductDTO> request = new HttpEntity<>(updatedProduct, headers);
@@ -65,9 +97,33 @@ class ProductIT {
         assertThat(modifiedProduct.getName()).isEqualTo("iPad");
     }
 
+    @Test
+    void testPutReplacesEveryField() {
+        ProductDTO createdProduct = restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Lamp", "Desk lamp", new BigDecimal("40.00")), ProductDTO.class).getBody();
+        assertThat(createdProduct).isNotNull();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<ProductDTO> replaced = restTemplate.exchange("/api/products/" + createdProduct.getId(),
+                HttpMethod.PUT, new HttpEntity<>("{\"name\":\"Lamp\",\"description\":null,\"price\":45.00}",
+                        headers), ProductDTO.class);
+
+        assertThat(replaced.getStatusCode()).isEqualTo(OK);
+        assertThat(replaced.getBody().getDescription()).isNull();
+        assertThat(replaced.getBody().getPrice()).isEqualByComparingTo("45.0");
+        assertThat(restTemplate.getForObject("/api/products/" + createdProduct.getId(), ProductDTO.class)
+                .getDescription()).isNull();
+
+        ResponseEntity<String> withoutName = restTemplate.exchange("/api/products/" + createdProduct.getId(),
+                HttpMethod.PUT, new HttpEntity<>("{\"description\":\"Desk lamp\",\"price\":45.00}", headers),
+                String.class);
+        assertThat(withoutName.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     void testDeleteProduct() {
-        ProductDTO newProduct = new ProductDTO(null, "Tablet", "Android Tablet", 300.0);
+        ProductDTO newProduct = new ProductDTO(null, "Tablet", "Android Tablet", new BigDecimal("300.00"));
         ResponseEntity<ProductDTO> createResponse = restTemplate.postForEntity(
                 "/api/products", newProduct, ProductDTO.class);
 
@@ -82,5 +138,518 @@ class ProductIT {
                 "/api/products/" + createdProduct.getId(), ProductDTO.class);
 
         assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        ResponseEntity<String> deleteAgain = restTemplate.exchange("/api/products/" + createdProduct.getId(),
+                HttpMethod.DELETE, null, String.class);
+        assertThat(deleteAgain.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testPatchProduct() {
+        ProductDTO createdProduct = restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Monitor", "27 inch", new BigDecimal("300.00")), ProductDTO.class).getBody();
+        assertThat(createdProduct).isNotNull();
+
+        ResponseEntity<ProductDTO> patched = restTemplate.exchange("/api/products/" + createdProduct.getId(),
+                HttpMethod.PATCH, new HttpEntity<>(Map.of("price", 250.0)), ProductDTO.class);
+
+        assertThat(patched.getStatusCode()).isEqualTo(OK);
+        assertThat(patched.getHeaders().getETag()).isEqualTo("W/\"1\"");
+        assertThat(patched.getBody().getName()).isEqualTo("Monitor");
+        assertThat(patched.getBody().getDescription()).isEqualTo("27 inch");
+        assertThat(patched.getBody().getPrice()).isEqualByComparingTo("250.0");
+        assertThat(restTemplate.getForObject("/api/products/" + createdProduct.getId(), ProductDTO.class)
+                .getPrice()).isEqualByComparingTo("250.0");
+
+        HttpHeaders staleIfMatch = new HttpHeaders();
+        staleIfMatch.setIfMatch("\"0\"");
+        ResponseEntity<String> stale = restTemplate.exchange("/api/products/" + createdProduct.getId(),
+                HttpMethod.PATCH, new HttpEntity<>(Map.of("name", "Old monitor"), staleIfMatch), String.class);
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        ResponseEntity<String> missing = restTemplate.exchange("/api/products/999999", HttpMethod.PATCH,
+                new HttpEntity<>(Map.of("name", "Ghost")), String.class);
+        assertThat(missing.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testLookupProducts() {
+        ProductDTO first = restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Keyboard", "Mechanical", new BigDecimal("90.00")), ProductDTO.class).getBody();
+        ProductDTO second = restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Mouse", "Wireless", new BigDecimal("40.00")), ProductDTO.class).getBody();
+        restTemplate.getForEntity("/api/products/" + first.getId(), ProductDTO.class);
+
+        ProductLookupResponse byQuery = restTemplate.getForObject("/api/products?ids={ids}",
+                ProductLookupResponse.class, second.getId() + ",999999," + first.getId());
+        ProductLookupResponse byBody = restTemplate.postForObject("/api/products/lookup",
+                List.of(second.getId(), 999999L, first.getId()), ProductLookupResponse.class);
+
+        for (ProductLookupResponse lookup : List.of(byQuery, byBody)) {
+            assertThat(lookup.found()).isEqualTo(2);
+            assertThat(lookup.missing()).isEqualTo(1);
+            assertThat(lookup.items()).extracting(ProductLookupItem::id)
+                    .containsExactly(second.getId(), 999999L, first.getId());
+            assertThat(lookup.items()).extracting(ProductLookupItem::status)
+                    .containsExactly(ProductLookupItem.Status.FOUND, ProductLookupItem.Status.NOT_FOUND,
+                            ProductLookupItem.Status.FOUND);
+            assertThat(lookup.items().get(0).product().getName()).isEqualTo("Mouse");
+            assertThat(lookup.items().get(1).product()).isNull();
+            assertThat(lookup.items().get(2).product().getName()).isEqualTo("Keyboard");
+        }
+
+        ResponseEntity<String> empty = restTemplate.postForEntity("/api/products/lookup", List.of(), String.class);
+        assertThat(empty.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testHotPageCacheInvalidatedOnWrite() {
+        String url = "/api/products?sortBy=id&sortDir=desc&size=5";
+        ResponseEntity<PagedResponse<ProductDTO>> before = restTemplate.exchange(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedResponse<ProductDTO>>() {
+                });
+        ResponseEntity<PagedResponse<ProductDTO>> cached = restTemplate.exchange(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedResponse<ProductDTO>>() {
+                });
+        assertThat(cached.getHeaders().getETag()).isEqualTo(before.getHeaders().getETag());
+
+        ProductDTO created = restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Speaker", "Bluetooth", new BigDecimal("70.00")), ProductDTO.class).getBody();
+        ResponseEntity<PagedResponse<ProductDTO>> after = restTemplate.exchange(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedResponse<ProductDTO>>() {
+                });
+
+        assertThat(after.getHeaders().getETag()).isNotEqualTo(before.getHeaders().getETag());
+        assertThat(after.getBody().content().get(0).getId()).isEqualTo(created.getId());
+        assertThat(after.getBody().totalElements()).isEqualTo(before.getBody().totalElements() + 1);
+    }
+
+    @Test
+    void testCursorPagination() {
+        for (String name : List.of("Cursor A", "Cursor B", "Cursor C")) {
+            restTemplate.postForEntity("/api/products",
+                    new ProductDTO(null, name, "Cursor test", new BigDecimal("10.00")), ProductDTO.class);
+        }
+
+        List<String> names = new ArrayList<>();
+        String after = "";
+        do {
+            ResponseEntity<CursorPagedResponse<ProductDTO>> response = restTemplate.exchange(
+                    "/api/products?after={after}&size=2&sortBy=price&sortDir=asc", HttpMethod.GET, null,
+                    new ParameterizedTypeReference<CursorPagedResponse<ProductDTO>>() {
+                    }, after);
+
+            assertThat(response.getStatusCode()).isEqualTo(OK);
+            CursorPagedResponse<ProductDTO> page = response.getBody();
+            assertThat(page).isNotNull();
+            page.content().stream()
+                    .filter(product -> product.getDescription().equals("Cursor test"))
+                    .forEach(product -> names.add(product.getName()));
+            after = page.nextCursor();
+        } while (after != null);
+
+        assertThat(names).containsExactly("Cursor A", "Cursor B", "Cursor C");
+    }
+
+    @Test
+    void testOffsetPageLinksToNextCursorPage() {
+        for (String name : List.of("Link A", "Link B", "Link C")) {
+            restTemplate.postForEntity("/api/products",
+                    new ProductDTO(null, name, "Link test", new BigDecimal("10.00")), ProductDTO.class);
+        }
+
+        ResponseEntity<String> first = restTemplate.getForEntity("/api/products?size=1&sortBy=id&sortDir=asc",
+                String.class);
+        String link = first.getHeaders().getFirst(HttpHeaders.LINK);
+        ResponseEntity<String> filtered = restTemplate.getForEntity("/api/products?size=1&minPrice=1",
+                String.class);
+
+        assertThat(link).startsWith("</api/products?after=").endsWith(">; rel=\"next\"");
+        assertThat(filtered.getHeaders().getFirst(HttpHeaders.LINK)).isNull();
+        List<Long> ids = new ArrayList<>();
+        while (link != null) {
+            ResponseEntity<CursorPagedResponse<ProductDTO>> response = restTemplate.exchange(
+                    URI.create(link.substring(1, link.indexOf('>'))), HttpMethod.GET, null,
+                    new ParameterizedTypeReference<CursorPagedResponse<ProductDTO>>() {
+                    });
+            assertThat(response.getStatusCode()).isEqualTo(OK);
+            response.getBody().content().forEach(product -> ids.add(product.getId()));
+            link = response.getHeaders().getFirst(HttpHeaders.LINK);
+        }
+        assertThat(ids).isSorted().doesNotHaveDuplicates().hasSizeGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void testUnsortableField() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/products?sortBy=description", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).contains("sortable fields");
+    }
+
+    @Test
+    void testPageSizeCap() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/products?size=100000", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testRateLimitPerApiKey() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-API-Key", "limited-client");
+
+        List<HttpStatusCode> statuses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            statuses.add(restTemplate.exchange("/api/products?size=1", HttpMethod.GET, new HttpEntity<>(headers),
+                    String.class).getStatusCode());
+        }
+        ResponseEntity<String> limited = restTemplate.exchange("/api/products?size=1", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertThat(statuses).contains(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(limited.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(limited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotNull();
+        assertThat(restTemplate.getForEntity("/api/products?size=1", String.class).getStatusCode()).isEqualTo(OK);
+    }
+
+    @Test
+    void testInvalidCursor() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/products?after=not-a-cursor", String.class);
+        String nameCursor = CursorCodec.encode(Map.of("name", "Cursor A", "id", 1L));
+        ResponseEntity<String> mismatched = restTemplate.getForEntity(
+                "/api/products?sortBy=price&after=" + nameCursor, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(mismatched.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testCountStrategies() {
+        restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Counted", "Count test", new BigDecimal("10.00")), ProductDTO.class);
+
+        ResponseEntity<String> skipped = restTemplate.getForEntity("/api/products?count=none&size=1", String.class);
+        assertThat(skipped.getStatusCode()).isEqualTo(OK);
+        assertThat(skipped.getBody()).contains("\"hasNext\"").doesNotContain("totalElements");
+
+        ResponseEntity<String> estimated = restTemplate.getForEntity("/api/products?count=estimated", String.class);
+        assertThat(estimated.getStatusCode()).isEqualTo(OK);
+        assertThat(estimated.getBody()).contains("\"totalElements\"");
+
+        ResponseEntity<String> misspelled = restTemplate.getForEntity("/api/products?count=estimate", String.class);
+        assertThat(misspelled.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(misspelled.getBody()).contains("estimated");
+    }
+
+    @Test
+    void testBinaryFormatsAndCompression() throws IOException, InterruptedException {
+        HttpHeaders batchHeaders = new HttpHeaders();
+        batchHeaders.setContentType(MediaType.APPLICATION_NDJSON);
+        StringBuilder batch = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            batch.append("{\"name\": \"Format ").append(i)
+                    .append("\", \"description\": \"Format test\", \"price\": 5.0}\n");
+        }
+        restTemplate.postForEntity("/api/products/batch", new HttpEntity<>(batch.toString(), batchHeaders),
+                BatchReport.class);
+        TypeReference<PagedResponse<ProductDTO>> pageType = new TypeReference<>() {
+        };
+
+        PagedResponse<ProductDTO> json = restTemplate.exchange("/api/products?size=40&sortBy=id", HttpMethod.GET,
+                null, new ParameterizedTypeReference<PagedResponse<ProductDTO>>() {
+                }).getBody();
+        for (ObjectMapper mapper : List.of(new CBORMapper(), new SmileMapper())) {
+            MediaType mediaType = mapper instanceof CBORMapper
+                    ? MediaType.parseMediaType("application/cbor")
+                    : MediaType.parseMediaType("application/x-jackson-smile");
+            HttpHeaders headers = new HttpHeaders();
+            headers.setAccept(List.of(mediaType));
+            ResponseEntity<byte[]> response = restTemplate.exchange("/api/products?size=40&sortBy=id",
+                    HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+            assertThat(response.getStatusCode()).isEqualTo(OK);
+            assertThat(response.getHeaders().getContentType()).isEqualTo(mediaType);
+            assertThat(response.getHeaders().getVary()).extracting(String::toLowerCase).contains("accept");
+            PagedResponse<ProductDTO> decoded = mapper.readValue(response.getBody(), pageType);
+            assertThat(decoded.content()).extracting(ProductDTO::getId)
+                    .containsExactlyElementsOf(json.content().stream().map(ProductDTO::getId).toList());
+        }
+
+        // The JDK client leaves the body and Content-Encoding as sent.
+        HttpResponse<InputStream> compressed = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(restTemplate.getRootUri() + "/api/products?size=40&sortBy=id"))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(compressed.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        assertThat(compressed.headers().firstValue(HttpHeaders.ETAG)).hasValueSatisfying(
+                etag -> assertThat(etag).startsWith("W/"));
+        try (InputStream body = new GZIPInputStream(compressed.body())) {
+            assertThat(new ObjectMapper().readValue(body, pageType).content()).hasSize(json.content().size());
+        }
+    }
+
+    @Test
+    void testBatchCreateAndDelete() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        String body = "{\"name\": \"Batch A\", \"description\": \"Batch test\", \"price\": 1.0}\n"
+                + "{\"name\": \"Batch B\"}\n"
+                + "{\"name\": \"Batch C\", \"description\": \"Batch test\", \"price\": 3.0}\n";
+
+        ResponseEntity<BatchReport> createResponse = restTemplate.postForEntity(
+                "/api/products/batch", new HttpEntity<>(body, headers), BatchReport.class);
+
+        assertThat(createResponse.getStatusCode()).isEqualTo(OK);
+        BatchReport created = createResponse.getBody();
+        assertThat(created).isNotNull();
+        assertThat(created.succeeded()).isEqualTo(2);
+        assertThat(created.items().get(1).status()).isEqualTo(BatchItemResult.Status.FAILED);
+        Long firstId = created.items().get(0).id();
+        Long thirdId = created.items().get(2).id();
+
+        ResponseEntity<BatchReport> deleteResponse = restTemplate.exchange("/api/products/batch", HttpMethod.DELETE,
+                new HttpEntity<>(List.of(firstId, thirdId, -1L)), BatchReport.class);
+
+        assertThat(deleteResponse.getStatusCode()).isEqualTo(OK);
+        assertThat(deleteResponse.getBody()).isNotNull();
+        assertThat(deleteResponse.getBody().items()).extracting(BatchItemResult::status)
+                .containsExactly(BatchItemResult.Status.DELETED, BatchItemResult.Status.DELETED,
+                        BatchItemResult.Status.NOT_FOUND);
+        assertThat(restTemplate.getForEntity("/api/products/" + firstId, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void testBatchChunkRejectedByDatabaseKeepsValidItems() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        String body = "{\"name\": \"Chunk A\", \"description\": \"Batch test\", \"price\": 1.0}\n"
+                + "{\"name\": \"" + "x".repeat(300) + "\", \"description\": \"Too long\", \"price\": 2.0}\n"
+                + "{\"name\": \"Chunk C\", \"description\": \"Batch test\", \"price\": 3.0}\n";
+
+        ResponseEntity<BatchReport> response = restTemplate.postForEntity(
+                "/api/products/batch", new HttpEntity<>(body, headers), BatchReport.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        BatchReport report = response.getBody();
+        assertThat(report).isNotNull();
+        assertThat(report.items()).extracting(BatchItemResult::status)
+                .containsExactly(BatchItemResult.Status.CREATED, BatchItemResult.Status.FAILED,
+                        BatchItemResult.Status.CREATED);
+        assertThat(report.items().get(1).error()).isNotBlank();
+        ResponseEntity<ProductDTO> third = restTemplate.getForEntity(
+                "/api/products/" + report.items().get(2).id(), ProductDTO.class);
+        assertThat(third.getStatusCode()).isEqualTo(OK);
+        assertThat(third.getBody().getName()).isEqualTo("Chunk C");
+    }
+
+    @Test
+    void testExportProducts() {
+        ProductDTO created = restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Export, \"quoted\"", "Export test", new BigDecimal("42.50")), ProductDTO.class)
+                .getBody();
+        assertThat(created).isNotNull();
+
+        ResponseEntity<String> ndjson = restTemplate.getForEntity("/api/products/export", String.class);
+        assertThat(ndjson.getStatusCode()).isEqualTo(OK);
+        assertThat(ndjson.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(ndjson.getBody()).endsWith("\n")
+                .contains("{\"id\":" + created.getId() + ",\"name\":\"Export, \\\"quoted\\\"\"");
+
+        ResponseEntity<String> csv = restTemplate.getForEntity("/api/products/export?format=csv", String.class);
+        assertThat(csv.getStatusCode()).isEqualTo(OK);
+        assertThat(csv.getBody()).startsWith("id,name,description,price\n")
+                .contains(created.getId() + ",\"Export, \"\"quoted\"\"\",Export test,42.50\n");
+    }
+
+    @Test
+    void testExportProductsUnknownFormat() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/products/export?format=xml", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).contains("ndjson", "csv");
+    }
+
+    @Test
+    void testListProductsByPriceRange() {
+        for (String price : new String[] { "7001.1", "7002.20", "7003.30" }) {
+            restTemplate.postForEntity("/api/products",
+                    new ProductDTO(null, "Priced " + price, "Range test", new BigDecimal(price)), ProductDTO.class);
+        }
+
+        ResponseEntity<PagedResponse<ProductDTO>> response = restTemplate.exchange(
+                "/api/products?minPrice=7001.10&maxPrice=7002.2&sortBy=price", HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedResponse<ProductDTO>>() {
+                });
+
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().totalElements()).isEqualTo(2L);
+        assertThat(response.getBody().content()).extracting(ProductDTO::getPrice)
+                .containsExactly(new BigDecimal("7001.10"), new BigDecimal("7002.20"));
+
+        assertThat(restTemplate.getForEntity("/api/products?minPrice=10&maxPrice=5", String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Sub-cent", "Range test", new BigDecimal("1.005")), String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testSearchProducts() {
+        restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Searchable Lamp", "Desk light", new BigDecimal("25.00")),
+                ProductDTO.class);
+        restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Bulb", "Spare for the searchable lamp", new BigDecimal("5.00")),
+                ProductDTO.class);
+        restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Searchable 100% Chair", "Office", new BigDecimal("90.00")),
+                ProductDTO.class);
+
+        ResponseEntity<PagedResponse<ProductDTO>> response = restTemplate.exchange(
+                "/api/products/search?q=SEARCHABLE&maxPrice=50", HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedResponse<ProductDTO>>() {
+                });
+
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().content()).extracting(ProductDTO::getName)
+                .containsExactly("Bulb", "Searchable Lamp");
+
+        ResponseEntity<PagedResponse<ProductDTO>> wildcard = restTemplate.exchange(
+                "/api/products/search?q={q}", HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedResponse<ProductDTO>>() {
+                }, "100%");
+        assertThat(wildcard.getBody()).isNotNull();
+        assertThat(wildcard.getBody().content()).extracting(ProductDTO::getName)
+                .containsExactly("Searchable 100% Chair");
+
+        assertThat(restTemplate.getForEntity("/api/products/search?q=ab", String.class).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void testConditionalRequests() {
+        ProductDTO created = restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Router", "Wi-Fi 6", new BigDecimal("120.00")), ProductDTO.class).getBody();
+        assertThat(created).isNotNull();
+
+        ResponseEntity<ProductDTO> first = restTemplate.getForEntity("/api/products/" + created.getId(),
+                ProductDTO.class);
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isEqualTo("W/\"0\"");
+        assertThat(first.getHeaders().getLastModified()).isPositive();
+        assertThat(first.getHeaders().getFirst(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(first.getHeaders().get(HttpHeaders.ETAG)).hasSize(1);
+
+        HttpHeaders ifNoneMatch = new HttpHeaders();
+        ifNoneMatch.setIfNoneMatch(etag);
+        ResponseEntity<ProductDTO> notModified = restTemplate.exchange("/api/products/" + created.getId(),
+                HttpMethod.GET, new HttpEntity<>(ifNoneMatch), ProductDTO.class);
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getBody()).isNull();
+
+        HttpHeaders ifMatch = new HttpHeaders();
+        ifMatch.setIfMatch(etag);
+        ResponseEntity<ProductDTO> updated = restTemplate.exchange("/api/products/" + created.getId(),
+                HttpMethod.PUT,
+                new HttpEntity<>(new ProductDTO(null, "Router", "Wi-Fi 7", new BigDecimal("150.00")), ifMatch),
+                ProductDTO.class);
+        assertThat(updated.getStatusCode()).isEqualTo(OK);
+        assertThat(updated.getHeaders().getETag()).isEqualTo("W/\"1\"");
+
+        ResponseEntity<String> stale = restTemplate.exchange("/api/products/" + created.getId(),
+                HttpMethod.PUT,
+                new HttpEntity<>(new ProductDTO(null, "Router", "Wi-Fi 5", new BigDecimal("90.00")), ifMatch),
+                String.class);
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        ResponseEntity<ProductDTO> modified = restTemplate.exchange("/api/products/" + created.getId(),
+                HttpMethod.GET, new HttpEntity<>(ifNoneMatch), ProductDTO.class);
+        assertThat(modified.getStatusCode()).isEqualTo(OK);
+        assertThat(modified.getBody().getDescription()).isEqualTo("Wi-Fi 7");
+        assertThat(modified.getHeaders().get(HttpHeaders.ETAG)).containsExactly("W/\"1\"");
+
+        ResponseEntity<String> page = restTemplate.getForEntity("/api/products?sortBy=id", String.class);
+        HttpHeaders pageIfNoneMatch = new HttpHeaders();
+        pageIfNoneMatch.setIfNoneMatch(page.getHeaders().getETag());
+        assertThat(restTemplate.exchange("/api/products?sortBy=id", HttpMethod.GET,
+                new HttpEntity<>(pageIfNoneMatch), String.class).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void testChangeFeed() {
+        ChangeFeedResponse<ProductDTO> start = restTemplate.exchange("/api/products/changes?since=0&limit=1000",
+                HttpMethod.GET, null, new ParameterizedTypeReference<ChangeFeedResponse<ProductDTO>>() {
+                }).getBody();
+        assertThat(start).isNotNull();
+        long since = start.nextSince();
+
+        ProductDTO kept = restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Mirror Kept", "Feed", new BigDecimal("10.00")), ProductDTO.class).getBody();
+        ProductDTO removed = restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Mirror Removed", "Feed", new BigDecimal("20.00")), ProductDTO.class).getBody();
+        restTemplate.delete("/api/products/" + removed.getId());
+
+        // Positions are assigned right after commit, in the background, so
+        // the changes may arrive over more than one read, after changes left
+        // by other tests. Reads go on until one finds nothing new.
+        Map<Long, ChangeFeedResponse.Change<ProductDTO>> mirror = new LinkedHashMap<>();
+        long position = since;
+        Set<Long> written = Set.of(kept.getId(), removed.getId());
+        ChangeFeedResponse<ProductDTO> response;
+        int attempt = 0;
+        do {
+            response = restTemplate.exchange("/api/products/changes?wait=1&since=" + position, HttpMethod.GET, null,
+                    new ParameterizedTypeReference<ChangeFeedResponse<ProductDTO>>() {
+                    }).getBody();
+            for (ChangeFeedResponse.Change<ProductDTO> change : response.changes()) {
+                if (!written.contains(change.productId())) {
+                    continue;
+                }
+                mirror.remove(change.productId());
+                mirror.put(change.productId(), change);
+            }
+            position = response.nextSince();
+        } while ((!response.changes().isEmpty() || !mirror.keySet().containsAll(written)) && ++attempt < 10);
+
+        assertThat(mirror.keySet()).containsExactly(kept.getId(), removed.getId());
+        assertThat(mirror.get(kept.getId()).product().getName()).isEqualTo("Mirror Kept");
+        assertThat(mirror.get(removed.getId()).type()).isEqualTo(ProductChangeEntity.Type.DELETE);
+        assertThat(position).isGreaterThan(since);
+        assertThat(response.changes()).isEmpty();
+        assertThat(response.nextSince()).isEqualTo(position);
+    }
+
+    @Test
+    void testPrometheusEndpoint() {
+        ProductDTO created = restTemplate.postForEntity("/api/products",
+                new ProductDTO(null, "Gauge", "Metrics", new BigDecimal("1.00")), ProductDTO.class).getBody();
+        restTemplate.getForEntity("/api/products/" + created.getId(), ProductDTO.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody())
+                .contains("http_server_requests_seconds_bucket")
+                .contains("spring_data_repository_invocations_seconds_bucket")
+                .contains("products_service_seconds_bucket")
+                .contains("cache_gets_total{application=\"products-api\",cache=\"products\"")
+                .contains("hikaricp_connections_active")
+                .contains("jdbc_query_seconds");
+    }
+
+    @Test
+    void testHealthProbes() {
+        ResponseEntity<String> readiness = restTemplate.getForEntity("/actuator/health/readiness", String.class);
+        ResponseEntity<String> liveness = restTemplate.getForEntity("/actuator/health/liveness", String.class);
+
+        assertThat(readiness.getStatusCode()).isEqualTo(OK);
+        assertThat(readiness.getBody()).contains("\"status\":\"UP\"");
+        assertThat(liveness.getStatusCode()).isEqualTo(OK);
+        assertThat(liveness.getBody()).contains("\"status\":\"UP\"");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.example.products_api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.example.products_api.service.ProductService;
+
+/**
+ * Checks against the PostgreSQL plan of the SQL Hibernate generates for
+ * {@link ProductService#searchProducts} that the ILIKE substring filters are
+ * served by the trigram indexes of migration V2 rather than a table scan.
+ * The table is seeded and analyzed first, since on an empty table the
+ * planner rightly prefers a sequential scan. Skipped when no Docker daemon
+ * is available.
+ */
+@SpringBootTest(classes = com.example.products_api.ProductsApiApplication.class,
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.products_api.integration.SqlCapture")
+@ActiveProfiles("test")
+@EnabledIf("dockerAvailable")
+class ProductSearchPostgresIT {
+
+    private static final String QUERY = "quartz";
+    private static final int SIZE = 10;
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    static boolean dockerAvailable() {
+        return DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>("postgres:14");
+            postgres.start();
+        }
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("SELECT count(*) FROM products", Long.class) < 10_000) {
+            jdbcTemplate.update("INSERT INTO products (id, name, description, price, version, last_modified) "
+                    + "SELECT nextval('products_seq'), 'Product ' || n, 'Seeded for the search plan ' || n, "
+                    + "n % 1000 + 0.99, 0, now() FROM generate_series(1, 10000) n");
+            jdbcTemplate.execute("ANALYZE products");
+        }
+    }
+
+    @Test
+    void testSearchUsesTrigramIndexes() {
+        String sql = searchSql();
+        // Both ILIKE patterns, then the page limits, whose values do not
+        // change which index serves the filter.
+        String plan = explain(inline(sql, "%" + QUERY + "%", "%" + QUERY + "%", SIZE + 1));
+
+        assertThat(plan).as("plan for " + sql)
+                .contains("Bitmap Index Scan on products_name_trgm_idx")
+                .contains("Bitmap Index Scan on products_description_trgm_idx")
+                .doesNotContain("Seq Scan");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    /**
+     * The page query {@code searchProducts} sends, as Hibernate generated it.
+     */
+    private String searchSql() {
+        SqlCapture.clear();
+        productService.searchProducts(QUERY, null, null, 1, SIZE, "name", "asc");
+        List<String> selects = SqlCapture.statements().stream()
+                .filter(sql -> sql.toLowerCase().contains(" from products "))
+                .toList();
+        assertThat(selects).as("queries of searchProducts(%s)", QUERY).hasSize(1);
+        return selects.get(0);
+    }
+
+    /**
+     * Replaces the JDBC parameters of {@code sql} with literals, since
+     * EXPLAIN is not prepared with bind values. Parameters past the given
+     * values take the last one.
+     */
+    private static String inline(String sql, Object... values) {
+        StringBuilder inlined = new StringBuilder();
+        int value = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                Object literal = values[Math.min(value++, values.length - 1)];
+                inlined.append(literal instanceof String text ? "'" + text.replace("'", "''") + "'" : literal);
+            } else {
+                inlined.append(c);
+            }
+        }
+        assertThat(value).as("parameters of %s", sql).isGreaterThanOrEqualTo(values.length);
+        return inlined.toString();
+    }
+}
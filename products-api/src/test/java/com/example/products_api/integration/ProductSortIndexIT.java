@@ -0,0 +1,106 @@
+package com.example.products_api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.service.CountStrategy;
+import com.example.products_api.service.ProductService;
+import com.example.products_api.utils.PriceRange;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Checks against the H2 plan of the SQL Hibernate generates for
+ * {@link ProductService#getProducts} that every sortable field is read in
+ * index order, in both directions, rather than sorted after a table scan,
+ * and that price ranges are index range scans.
+ */
+@SpringBootTest(classes = com.example.products_api.ProductsApiApplication.class,
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.products_api.integration.SqlCapture")
+@ActiveProfiles("test")
+class ProductSortIndexIT {
+
+    private static final int PAGE = 3;
+    private static final int SIZE = 10;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void testSortableFieldsUseIndexOrder() {
+        for (String field : ProductEntity.SORTABLE_FIELDS) {
+            for (String direction : new String[] { "asc", "desc" }) {
+                String sql = listingSql(field, direction, PriceRange.UNBOUNDED);
+                // Offset and limit; a slice reads one row more than the page.
+                String plan = explain(inline(sql, (PAGE - 1) * SIZE, SIZE + 1));
+
+                assertIndexOrder(plan, "plan for " + sql);
+            }
+        }
+    }
+
+    @Test
+    void testPriceRangeUsesIndex() {
+        PriceRange range = PriceRange.of(new BigDecimal("10.00"), new BigDecimal("20.00"));
+        String sql = listingSql("price", "asc", range);
+        String plan = explain(inline(sql, range.lower(), range.upper(), (PAGE - 1) * SIZE, SIZE + 1));
+
+        assertPriceRangeScan(plan, "plan for " + sql);
+    }
+
+    protected void assertIndexOrder(String plan, String description) {
+        assertThat(plan).as(description).contains("/* index sorted */");
+    }
+
+    protected void assertPriceRangeScan(String plan, String description) {
+        assertThat(plan).as(description).containsIgnoringCase("products_price_id_idx: price >= 10.00")
+                .contains("/* index sorted */");
+    }
+
+    protected String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    /**
+     * The page query {@code getProducts} sends for this listing, as
+     * Hibernate generated it.
+     */
+    private String listingSql(String sortBy, String sortDir, PriceRange range) {
+        SqlCapture.clear();
+        productService.getProducts(PAGE, SIZE, sortBy, sortDir, CountStrategy.NONE, range);
+        List<String> selects = SqlCapture.statements().stream()
+                .filter(sql -> sql.toLowerCase().contains(" from products "))
+                .toList();
+        assertThat(selects).as("queries of getProducts(%s, %s)", sortBy, sortDir).hasSize(1);
+        return selects.get(0);
+    }
+
+    /**
+     * Replaces the JDBC parameters of {@code sql} with literals, since
+     * EXPLAIN is not prepared with bind values.
+     */
+    private static String inline(String sql, Object... values) {
+        StringBuilder inlined = new StringBuilder();
+        int value = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                Object literal = values[value++];
+                inlined.append(literal instanceof BigDecimal decimal ? decimal.toPlainString() : literal);
+            } else {
+                inlined.append(c);
+            }
+        }
+        assertThat(value).as("parameters of %s", sql).isEqualTo(values.length);
+        return inlined.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.products_api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * The same checks against the PostgreSQL plan, on the image the Kubernetes
+ * manifests deploy. The table is seeded and analyzed first, since on an
+ * empty table the planner rightly prefers a sequential scan. Skipped when
+ * no Docker daemon is available.
+ */
+@EnabledIf("dockerAvailable")
+class ProductSortIndexPostgresIT extends ProductSortIndexIT {
+
+    private static final String NO_SORT_NODE = "(?s)(?!.*\\bSort\\b).*";
+
+    private static PostgreSQLContainer<?> postgres;
+
+    static boolean dockerAvailable() {
+        return DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>("postgres:14");
+            postgres.start();
+        }
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("SELECT count(*) FROM products", Long.class) < 10_000) {
+            jdbcTemplate.update("INSERT INTO products (id, name, description, price, version, last_modified) "
+                    + "SELECT nextval('products_seq'), 'Product ' || n, 'Seeded for the plan checks', "
+                    + "n % 1000 + 0.99, 0, now() FROM generate_series(1, 10000) n");
+            jdbcTemplate.execute("ANALYZE products");
+        }
+    }
+
+    @Override
+    protected void assertIndexOrder(String plan, String description) {
+        assertThat(plan).as(description).contains("Index Scan").matches(NO_SORT_NODE);
+    }
+
+    @Override
+    protected void assertPriceRangeScan(String plan, String description) {
+        assertThat(plan).as(description).contains("Index Scan using products_price_id_idx")
+                .contains("Index Cond: ((price >= 10.00) AND (price <= 20.00))")
+                .matches(NO_SORT_NODE);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.products_api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.example.products_api.dto.ProductPatch;
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.exception.PreconditionFailedException;
+import com.example.products_api.service.ProductService;
+
+/**
+ * PUT and PATCH through the {@code UPDATE ... RETURNING} statement that only
+ * PostgreSQL runs; the other tests use H2's {@code FINAL TABLE} instead.
+ * Skipped when no Docker daemon is available.
+ */
+@SpringBootTest(classes = com.example.products_api.ProductsApiApplication.class)
+@ActiveProfiles("test")
+@EnabledIf("dockerAvailable")
+class ProductUpdatePostgresIT {
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @Autowired
+    private ProductService productService;
+
+    static boolean dockerAvailable() {
+        return DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>("postgres:14");
+            postgres.start();
+        }
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Test
+    void testUpdateReplacesEveryField() {
+        ProductEntity created = productService.createProduct(
+                new ProductEntity("Lamp", "Desk lamp", new BigDecimal("40.00")));
+
+        ProductEntity replaced = productService.updateProduct(created.getId(),
+                new ProductEntity("Floor lamp", null, new BigDecimal("45.00")), created.getVersion());
+
+        assertThat(replaced.getName()).isEqualTo("Floor lamp");
+        assertThat(replaced.getDescription()).isNull();
+        assertThat(replaced.getPrice()).isEqualByComparingTo("45.00");
+        assertThat(replaced.getVersion()).isEqualTo(created.getVersion() + 1);
+        assertThrows(PreconditionFailedException.class, () -> productService.updateProduct(created.getId(),
+                new ProductEntity("Old lamp", null, new BigDecimal("40.00")), created.getVersion()));
+    }
+
+    @Test
+    void testPatchKeepsAbsentFields() {
+        ProductEntity created = productService.createProduct(
+                new ProductEntity("Monitor", "27 inch", new BigDecimal("300.00")));
+
+        ProductEntity patched = productService.patchProduct(created.getId(),
+                new ProductPatch(null, null, new BigDecimal("250.00")), null);
+
+        assertThat(patched.getName()).isEqualTo("Monitor");
+        assertThat(patched.getDescription()).isEqualTo("27 inch");
+        assertThat(patched.getPrice()).isEqualByComparingTo("250.00");
+        assertThat(patched.getLastModified()).isNotNull();
+    }
+}
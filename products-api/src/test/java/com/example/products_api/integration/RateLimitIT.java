@@ -0,0 +1,98 @@
+package com.example.products_api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client identification behind a proxy: the test client connects from
+ * loopback, which Tomcat trusts as a proxy, so each {@code X-Forwarded-For}
+ * value below stands for a different client reaching the ingress.
+ */
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = com.example.products_api.ProductsApiApplication.class,
+        properties = { "products.rate-limit.requests-per-second=0.1", "products.rate-limit.burst-seconds=20",
+                "products.rate-limit.api-keys=issued-client", "products.load-shedding.initial-limit=3",
+                "products.load-shedding.min-limit=3", "products.load-shedding.max-limit=3" })
+@ActiveProfiles("test")
+class RateLimitIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void testForwardedClientsHaveTheirOwnQuota() {
+        List<HttpStatusCode> first = send("203.0.113.10", null, 3);
+        List<HttpStatusCode> second = send("203.0.113.11", null, 1);
+
+        assertThat(first).containsExactly(HttpStatus.OK, HttpStatus.OK, HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(second).containsExactly(HttpStatus.OK);
+    }
+
+    @Test
+    void testUnknownApiKeysShareTheClientQuota() {
+        List<HttpStatusCode> statuses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            statuses.addAll(send("203.0.113.20", UUID.randomUUID().toString(), 1));
+        }
+        List<HttpStatusCode> issued = send("203.0.113.20", "issued-client", 1);
+
+        assertThat(statuses).containsExactly(HttpStatus.OK, HttpStatus.OK, HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(issued).containsExactly(HttpStatus.OK);
+    }
+
+    @Test
+    void testLongPollsDoNotHoldConcurrencySlots() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        List<CompletableFuture<HttpResponse<String>>> longPolls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            // Past any position, so each poll waits out the full 10 seconds.
+            longPolls.add(client.sendAsync(HttpRequest.newBuilder(URI.create(restTemplate.getRootUri()
+                    + "/api/products/changes?since=" + Long.MAX_VALUE + "&wait=10"))
+                    .header("X-Forwarded-For", "198.51.100." + (i + 1))
+                    .build(), HttpResponse.BodyHandlers.ofString()));
+        }
+        // Give the polls time to reach their handlers and start waiting.
+        Thread.sleep(1000);
+
+        List<HttpStatusCode> statuses = send("203.0.113.30", null, 1);
+
+        assertThat(statuses).containsExactly(HttpStatus.OK);
+        assertThat(longPolls).noneMatch(CompletableFuture::isDone);
+        for (CompletableFuture<HttpResponse<String>> longPoll : longPolls) {
+            assertThat(longPoll.get().statusCode()).isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    private List<HttpStatusCode> send(String forwardedFor, String apiKey, int requests) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", forwardedFor);
+        if (apiKey != null) {
+            headers.set("X-API-Key", apiKey);
+        }
+        List<HttpStatusCode> statuses = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            statuses.add(restTemplate.exchange("/api/products?size=1", HttpMethod.GET, new HttpEntity<>(headers),
+                    String.class).getStatusCode());
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.products_api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+import com.example.products_api.dto.ProductDTO;
+import com.example.products_api.dto.ProductPatch;
+import com.example.products_api.utils.PagedResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = com.example.products_api.ProductsApiApplication.class,
+        properties = {
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactivedb;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=sa",
+                "spring.r2dbc.password=",
+                "spring.sql.init.mode=always",
+                "spring.sql.init.schema-locations=classpath:reactive-schema.sql"
+        })
+@ActiveProfiles({ "test", "reactive" })
+class ReactiveProductIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testCrudRoundTrip() {
+        // ARRANGE
+        ProductDTO newProduct = new ProductDTO(null, "Tablet", "Android Tablet", new BigDecimal("300.00"));
+
+        // ACT
+        ProductDTO created = webTestClient.post().uri("/api/products").bodyValue(newProduct)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ProductDTO.class).returnResult().getResponseBody();
+        webTestClient.put().uri("/api/products/{id}", created.getId())
+                .bodyValue(new ProductDTO(null, "Tablet Pro", "Android Tablet", new BigDecimal("450.00")))
+                .exchange()
+                .expectStatus().isOk();
+        ProductDTO fetched = webTestClient.get().uri("/api/products/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductDTO.class).returnResult().getResponseBody();
+        webTestClient.delete().uri("/api/products/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        // ASSERT
+        assertThat(created.getId()).isNotNull();
+        assertThat(fetched.getName()).isEqualTo("Tablet Pro");
+        assertThat(fetched.getPrice()).isEqualByComparingTo("450.0");
+        webTestClient.get().uri("/api/products/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.details").isEqualTo("Could not find product with id " + created.getId());
+    }
+
+    @Test
+    void testUpdateWithoutNameIsBadRequest() {
+        // ARRANGE
+        ProductDTO created = webTestClient.post().uri("/api/products")
+                .bodyValue(new ProductDTO(null, "Monitor", "4K Monitor", new BigDecimal("250.00")))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ProductDTO.class).returnResult().getResponseBody();
+
+        // ACT
+        webTestClient.put().uri("/api/products/{id}", created.getId())
+                .bodyValue(new ProductDTO(null, null, "4K Monitor", new BigDecimal("200.00")))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.details").isEqualTo("name is required");
+        ProductDTO unchanged = webTestClient.get().uri("/api/products/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductDTO.class).returnResult().getResponseBody();
+
+        // ASSERT
+        assertThat(unchanged.getPrice()).isEqualByComparingTo("250.0");
+    }
+
+    @Test
+    void testListingKeepsPagedResponseShape() {
+        // ARRANGE
+        for (int i = 0; i < 3; i++) {
+            webTestClient.post().uri("/api/products")
+                    .bodyValue(new ProductDTO(null, "Listed " + i, "Reactive listing", BigDecimal.valueOf(10 + i)))
+                    .exchange()
+                    .expectStatus().isCreated();
+        }
+
+        // ACT
+        PagedResponse<ProductDTO> exact = webTestClient.get().uri("/api/products?page=1&size=2&sortBy=id")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<PagedResponse<ProductDTO>>() {
+                }).returnResult().getResponseBody();
+        PagedResponse<ProductDTO> uncounted = webTestClient.get().uri("/api/products?page=1&size=2&count=none")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<PagedResponse<ProductDTO>>() {
+                }).returnResult().getResponseBody();
+
+        // ASSERT
+        assertThat(exact.content()).hasSize(2);
+        assertThat(exact.totalElements()).isGreaterThanOrEqualTo(3);
+        assertThat(exact.hasNext()).isTrue();
+        assertThat(uncounted.content()).hasSize(2);
+        assertThat(uncounted.totalElements()).isNull();
+        assertThat(uncounted.hasNext()).isTrue();
+    }
+
+    @Test
+    void testListingFiltersByPriceRange() {
+        // ARRANGE
+        for (String price : new String[] { "7001.00", "7002.00", "7003.00" }) {
+            webTestClient.post().uri("/api/products")
+                    .bodyValue(new ProductDTO(null, "Priced " + price, "Reactive price filter", new BigDecimal(price)))
+                    .exchange()
+                    .expectStatus().isCreated();
+        }
+
+        // ACT
+        PagedResponse<ProductDTO> bounded = webTestClient.get()
+                .uri("/api/products?minPrice=7001.50&maxPrice=7003&sortBy=price")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<PagedResponse<ProductDTO>>() {
+                }).returnResult().getResponseBody();
+        PagedResponse<ProductDTO> lowerOnly = webTestClient.get().uri("/api/products?minPrice=7002.50")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<PagedResponse<ProductDTO>>() {
+                }).returnResult().getResponseBody();
+
+        // ASSERT
+        assertThat(bounded.content()).extracting(ProductDTO::getName)
+                .containsExactly("Priced 7002.00", "Priced 7003.00");
+        assertThat(bounded.totalElements()).isEqualTo(2);
+        assertThat(lowerOnly.content()).extracting(ProductDTO::getName).containsExactly("Priced 7003.00");
+        webTestClient.get().uri("/api/products?minPrice=10&maxPrice=5")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.details").isEqualTo("minPrice must not be greater than maxPrice");
+    }
+
+    @Test
+    void testWritesHonourIfMatchAndSendETags() {
+        // ARRANGE
+        ProductDTO created = webTestClient.post().uri("/api/products")
+                .bodyValue(new ProductDTO(null, "Keyboard", "Mechanical", new BigDecimal("80.00")))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ProductDTO.class).returnResult().getResponseBody();
+        String eTag = webTestClient.get().uri("/api/products/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProductDTO.class).getResponseHeaders().getETag();
+
+        // ACT
+        String updatedETag = webTestClient.put().uri("/api/products/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .bodyValue(new ProductDTO(null, "Keyboard", "Mechanical", new BigDecimal("75.00")))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProductDTO.class).getResponseHeaders().getETag();
+        webTestClient.put().uri("/api/products/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .bodyValue(new ProductDTO(null, "Keyboard", "Mechanical", new BigDecimal("70.00")))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        ProductDTO patched = webTestClient.patch().uri("/api/products/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, updatedETag)
+                .bodyValue(new ProductPatch(null, null, new BigDecimal("72.00")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductDTO.class).returnResult().getResponseBody();
+
+        // ASSERT
+        assertThat(eTag).isEqualTo("W/\"0\"");
+        assertThat(updatedETag).isEqualTo("W/\"1\"");
+        assertThat(patched.getName()).isEqualTo("Keyboard");
+        assertThat(patched.getDescription()).isEqualTo("Mechanical");
+        assertThat(patched.getPrice()).isEqualByComparingTo("72.0");
+        webTestClient.get().uri("/api/products/{id}", created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.patch().uri("/api/products/{id}", created.getId() + 1_000_000)
+                .header(HttpHeaders.IF_MATCH, updatedETag)
+                .bodyValue(new ProductPatch(null, null, new BigDecimal("1.00")))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testConditionalGetIsNotModified() {
+        // ARRANGE
+        ProductDTO created = webTestClient.post().uri("/api/products")
+                .bodyValue(new ProductDTO(null, "Mouse", "Wireless", new BigDecimal("25.00")))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ProductDTO.class).returnResult().getResponseBody();
+        String eTag = webTestClient.get().uri("/api/products/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProductDTO.class).getResponseHeaders().getETag();
+
+        // ACT & ASSERT
+        webTestClient.get().uri("/api/products/{id}", created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void testLookupByIds() {
+        // ARRANGE
+        ProductDTO created = webTestClient.post().uri("/api/products")
+                .bodyValue(new ProductDTO(null, "Webcam", "1080p", new BigDecimal("40.00")))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ProductDTO.class).returnResult().getResponseBody();
+        long missing = created.getId() + 1_000_000;
+
+        // ACT & ASSERT
+        webTestClient.get().uri("/api/products?ids={found},{missing}", created.getId(), missing)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].status").isEqualTo("FOUND")
+                .jsonPath("$.items[0].product.name").isEqualTo("Webcam")
+                .jsonPath("$.items[1].id").isEqualTo(missing)
+                .jsonPath("$.items[1].status").isEqualTo("NOT_FOUND");
+        webTestClient.post().uri("/api/products/lookup")
+                .bodyValue(List.of(missing, created.getId()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].status").isEqualTo("NOT_FOUND")
+                .jsonPath("$.items[1].status").isEqualTo("FOUND");
+        webTestClient.get().uri("/api/products?ids={id}&after=", created.getId())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testServletOnlyEndpointsAreNotImplemented() {
+        // ACT & ASSERT
+        for (String uri : List.of("/api/products?after=", "/api/products/search?q=tab", "/api/products/export")) {
+            webTestClient.get().uri(uri)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED)
+                    .expectBody().jsonPath("$.details").exists();
+        }
+        webTestClient.post().uri("/api/products/batch")
+                .bodyValue(List.of(new ProductDTO(null, "Batched", "Batched", BigDecimal.ONE)))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED);
+    }
+
+    @Test
+    void testCorsAllowsPatchAndExposesValidators() {
+        // ACT & ASSERT
+        webTestClient.options().uri("/api/products/1")
+                .header(HttpHeaders.ORIGIN, "https://example.com")
+                .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "PATCH")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS,
+                        methods -> assertThat(methods).contains("PATCH"));
+        webTestClient.get().uri("/api/products?size=1")
+                .header(HttpHeaders.ORIGIN, "https://example.com")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS,
+                        headers -> assertThat(headers).contains("ETag"));
+    }
+}
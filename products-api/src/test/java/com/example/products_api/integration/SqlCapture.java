@@ -0,0 +1,30 @@
+package com.example.products_api.integration;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the SQL Hibernate sends, so tests can inspect the statements the
+ * application really runs. Registered through
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlCapture implements StatementInspector {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        statements.clear();
+    }
+
+    static List<String> statements() {
+        return List.copyOf(statements);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.products_api.unit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import com.example.products_api.entity.ProductChangeEntity;
+import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.repository.ProductChangeRepository;
+import com.example.products_api.repository.ProductRepository;
+import com.example.products_api.service.ProductChangeService;
+import com.example.products_api.utils.ChangeFeedResponse;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+class ProductChangeServiceTest {
+
+    @Mock
+    private ProductChangeRepository changeRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductChangeService productChangeService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        productChangeService = new ProductChangeService(changeRepository, productRepository,
+                mock(PlatformTransactionManager.class), TransactionOperations.withoutTransaction(),
+                Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productChangeService.stop();
+    }
+
+    @Test
+    void testGetChanges_CollapsesToLatestStatePerProduct() {
+        // ARRANGE
+        ProductEntity product = new ProductEntity("Phone", "Smartphone", new BigDecimal("800.00"));
+        product.setId(10L);
+        when(changeRepository.findByPositionGreaterThanOrderByPosition(0L, Limit.of(11))).thenReturn(List.of(
+                change(1L, 10L, ProductChangeEntity.Type.UPSERT),
+                change(2L, 11L, ProductChangeEntity.Type.UPSERT),
+                change(3L, 10L, ProductChangeEntity.Type.UPSERT),
+                change(4L, 11L, ProductChangeEntity.Type.DELETE)));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+
+        // ACT
+        ChangeFeedResponse<ProductEntity> feed = productChangeService.getChanges(0L, 10);
+
+        // ASSERT
+        assertThat(feed.changes()).extracting(ChangeFeedResponse.Change::position).containsExactly(3L, 4L);
+        assertThat(feed.changes().get(0).product()).isSameAs(product);
+        assertThat(feed.changes().get(1).type()).isEqualTo(ProductChangeEntity.Type.DELETE);
+        assertThat(feed.changes().get(1).product()).isNull();
+        assertThat(feed.nextSince()).isEqualTo(4L);
+        assertThat(feed.hasMore()).isFalse();
+    }
+
+    @Test
+    void testGetChanges_ReadsOnlyPositionedEntries() {
+        // ARRANGE
+        when(changeRepository.findByPositionGreaterThanOrderByPosition(7L, Limit.of(3))).thenReturn(List.of(
+                change(8L, 10L, ProductChangeEntity.Type.UPSERT),
+                change(9L, 11L, ProductChangeEntity.Type.UPSERT),
+                change(10L, 12L, ProductChangeEntity.Type.UPSERT)));
+
+        // ACT
+        ChangeFeedResponse<ProductEntity> feed = productChangeService.getChanges(7L, 2);
+
+        // ASSERT
+        assertThat(feed.changes()).extracting(ChangeFeedResponse.Change::productId).containsExactly(10L, 11L);
+        assertThat(feed.nextSince()).isEqualTo(9L);
+        assertThat(feed.hasMore()).isTrue();
+    }
+
+    @Test
+    void testAssignPositions_ContinuesFromLastPositionInWriteOrder() {
+        // ARRANGE
+        // Ids are pooled per replica, so they say nothing about commit order.
+        ProductChangeEntity first = change(null, 10L, ProductChangeEntity.Type.UPSERT);
+        first.setId(101L);
+        ProductChangeEntity second = change(null, 11L, ProductChangeEntity.Type.DELETE);
+        second.setId(151L);
+        when(changeRepository.lockLastPosition()).thenReturn(41L);
+        when(changeRepository.findByPositionIsNullOrderById(any())).thenReturn(List.of(first, second));
+
+        // ACT
+        int assigned = productChangeService.assignPositions();
+
+        // ASSERT
+        assertThat(assigned).isEqualTo(2);
+        assertThat(first.getPosition()).isEqualTo(42L);
+        assertThat(second.getPosition()).isEqualTo(43L);
+        InOrder inOrder = inOrder(changeRepository);
+        inOrder.verify(changeRepository).lockLastPosition();
+        inOrder.verify(changeRepository).findByPositionIsNullOrderById(any());
+        inOrder.verify(changeRepository).updateLastPosition(43L);
+    }
+
+    @Test
+    void testAssignPositions_NothingPending() {
+        // ARRANGE
+        when(changeRepository.lockLastPosition()).thenReturn(41L);
+        when(changeRepository.findByPositionIsNullOrderById(any())).thenReturn(List.of());
+
+        // ACT
+        int assigned = productChangeService.assignPositions();
+
+        // ASSERT
+        assertThat(assigned).isZero();
+        verify(changeRepository, never()).updateLastPosition(anyLong());
+    }
+
+    private static ProductChangeEntity change(Long position, Long productId, ProductChangeEntity.Type type) {
+        ProductChangeEntity change = new ProductChangeEntity(productId, type, Instant.now());
+        change.setPosition(position);
+        return change;
+    }
+}
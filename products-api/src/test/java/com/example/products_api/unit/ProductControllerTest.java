@@ -4,22 +4,35 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.example.products_api.advice.BadRequestAdvice;
+import com.example.products_api.cache.LocalProductCacheInvalidationBus;
+import com.example.products_api.cache.SerializedPageCache;
 import com.example.products_api.controller.ProductController;
+import com.example.products_api.dto.BatchItemResult;
 import com.example.products_api.dto.ProductDTO;
 import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.mapper.ProductMapper;
+import com.example.products_api.service.CountStrategy;
 import com.example.products_api.service.ProductService;
+import com.example.products_api.utils.CursorPagedResponse;
 import com.example.products_api.utils.PagedResponse;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.accept.ContentNegotiationManager;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 
 class ProductControllerTest {
@@ -29,8 +42,21 @@ class ProductControllerTest {
     @Mock
     private ProductService productService;
 
-    @Mock
-    private ModelMapper modelMapper;
+    @Spy
+    private ProductMapper productMapper = new ProductMapper();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private SerializedPageCache pageCache = new SerializedPageCache(100, Duration.ofMinutes(1), 5,
+            new LocalProductCacheInvalidationBus());
+
+    @Spy
+    private HttpMessageConverters messageConverters = new HttpMessageConverters();
+
+    @Spy
+    private ContentNegotiationManager contentNegotiationManager = new ContentNegotiationManager();
 
     @InjectMocks
     private ProductController productController;
@@ -38,30 +64,85 @@ class ProductControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(productController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(productController)
+                .setControllerAdvice(new BadRequestAdvice())
+                .build();
     }
 
     @Test
     void testGetProducts() throws Exception {
-        ProductEntity product = new ProductEntity("Laptop", "Gaming laptop", 1500.0);
-        ProductDTO productDTO = new ProductDTO(1L, "Laptop", "Gaming laptop", 1500.0);
+        ProductEntity product = new ProductEntity("Laptop", "Gaming laptop", new BigDecimal("1500.00"));
 
-        when(productService.getProducts(1, 10, "name", "asc"))
-                .thenReturn(new PagedResponse<>(List.of(product), 1, 1));
-        when(modelMapper.map(any(ProductEntity.class), eq(ProductDTO.class))).thenReturn(productDTO);
+        when(productService.getProducts(1, 10, "name", "asc", CountStrategy.EXACT))
+                .thenReturn(new PagedResponse<>(List.of(product), 1L, 1, false));
 
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].name").value("Laptop"));
     }
 
+    @Test
+    void testGetProducts_HotPageServedFromCache() throws Exception {
+        ProductEntity product = new ProductEntity("Laptop", "Gaming laptop", new BigDecimal("1500.00"));
+
+        when(productService.getProducts(1, 10, "name", "asc", CountStrategy.EXACT))
+                .thenReturn(new PagedResponse<>(List.of(product), 1L, 1, false));
+
+        String first = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(first))
+                .andExpect(header().exists("ETag"));
+        mockMvc.perform(get("/api/products").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        verify(productService, times(2)).getProducts(1, 10, "name", "asc", CountStrategy.EXACT);
+    }
+
+    @Test
+    void testGetProducts_InvalidParametersRejectedBeforeThePageCache() throws Exception {
+        mockMvc.perform(get("/api/products").param("sortBy", "description"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products").param("sortDir", "sideways"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products").param("size", "5000"))
+                .andExpect(status().isBadRequest());
+        verify(pageCache, never()).get(any(), any());
+        verify(productService, never()).getProducts(anyInt(), anyInt(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void testGetProductsAfter() throws Exception {
+        ProductEntity product = new ProductEntity("Laptop", "Gaming laptop", new BigDecimal("1500.00"));
+
+        when(productService.getProductsAfter("", 10, "name", "asc"))
+                .thenReturn(new CursorPagedResponse<>(List.of(product), "next", true));
+
+        mockMvc.perform(get("/api/products").param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Laptop"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+        verify(productService, never()).getProducts(anyInt(), anyInt(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void testLookupProducts_CombinedWithCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products").param("ids", "1,2").param("after", ""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details").value("ids cannot be combined with after"));
+        verify(productService, never()).getProductsByIds(any());
+        verify(productService, never()).getProductsAfter(anyString(), anyInt(), anyString(), anyString());
+    }
+
     @Test
     void testGetProductById() throws Exception {
-        ProductEntity product = new ProductEntity("Phone", "Smartphone", 800.0);
-        ProductDTO productDTO = new ProductDTO(1L, "Phone", "Smartphone", 800.0);
+        ProductEntity product = new ProductEntity("Phone", "Smartphone", new BigDecimal("800.00"));
 
         when(productService.getProductById(1L)).thenReturn(product);
-        when(modelMapper.map(any(ProductEntity.class), eq(ProductDTO.class))).thenReturn(productDTO);
 
         mockMvc.perform(get("/api/products/1"))
                 .andExpect(status().isOk())
@@ -70,18 +151,33 @@ class ProductControllerTest {
 
     @Test
     void testCreateProduct() throws Exception {
-        new ProductDTO(null, "Tablet", "Android Tablet", 300.0);
-        ProductEntity createdProduct = new ProductEntity("Tablet", "Android Tablet", 300.0);
-        ProductDTO outputDTO = new ProductDTO(1L, "Tablet", "Android Tablet", 300.0);
+        ProductEntity createdProduct = new ProductEntity("Tablet", "Android Tablet", new BigDecimal("300.00"));
+        createdProduct.setId(1L);
 
-        when(modelMapper.map(any(ProductDTO.class), eq(ProductEntity.class))).thenReturn(createdProduct);
         when(productService.createProduct(any(ProductEntity.class))).thenReturn(createdProduct);
-        when(modelMapper.map(any(ProductEntity.class), eq(ProductDTO.class))).thenReturn(outputDTO);
 
         mockMvc.perform(post("/api/products")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("{\"name\": \"Tablet\", \"description\": \"Android Tablet\", \"price\": 300.0}"))
                 .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.name").value("Tablet"));
     }
+
+    @Test
+    void testCreateProductsNdjson() throws Exception {
+        when(productService.createProducts(anyList()))
+                .thenReturn(List.of(BatchItemResult.of(0, 5L, BatchItemResult.Status.CREATED)));
+
+        mockMvc.perform(post("/api/products/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"name\": \"Tablet\", \"description\": \"Android Tablet\", \"price\": 300.0}\n"
+                        + "not json\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(5))
+                .andExpect(jsonPath("$.items[1].index").value(1))
+                .andExpect(jsonPath("$.items[1].status").value("FAILED"));
+    }
 }
\ No newline at end of file
@@ -4,27 +4,85 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
+import com.example.products_api.cache.LocalProductCacheInvalidationBus;
+import com.example.products_api.cache.ProductCache;
+import com.example.products_api.cache.RequestCoalescer;
+import com.example.products_api.cache.SerializedPageCache;
+import com.example.products_api.datasource.ReadYourWrites;
+import com.example.products_api.dto.BatchItemResult;
+import com.example.products_api.dto.ProductPatch;
+import com.example.products_api.dto.ProductVersion;
+import com.example.products_api.entity.ProductChangeEntity;
 import com.example.products_api.entity.ProductEntity;
+import com.example.products_api.exception.InvalidCursorException;
+import com.example.products_api.exception.InvalidLookupException;
+import com.example.products_api.exception.InvalidSearchException;
+import com.example.products_api.exception.InvalidSortFieldException;
+import com.example.products_api.exception.InvalidWriteException;
+import com.example.products_api.exception.PreconditionFailedException;
 import com.example.products_api.exception.ProductNotFoundException;
 import com.example.products_api.repository.ProductRepository;
+import com.example.products_api.service.CountStrategy;
+import com.example.products_api.service.ProductChangeService;
+import com.example.products_api.service.ProductCounter;
 import com.example.products_api.service.ProductService;
+import com.example.products_api.utils.CursorCodec;
+import com.example.products_api.utils.CursorPagedResponse;
 import com.example.products_api.utils.PagedResponse;
+import com.example.products_api.utils.PriceRange;
+import com.example.products_api.utils.Prices;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.support.TransactionOperations;
 
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 class ProductServiceTest {
 
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductCounter productCounter;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ProductChangeService productChangeService;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(1),
+            new LocalProductCacheInvalidationBus());
+
+    @Spy
+    private RequestCoalescer pageCoalescer = new RequestCoalescer(100, Duration.ZERO);
+
+    @Spy
+    private SerializedPageCache pageCache = new SerializedPageCache(100, Duration.ofMinutes(1), 5,
+            new LocalProductCacheInvalidationBus());
+
+    @Spy
+    private TransactionOperations readOnlyTransactions = TransactionOperations.withoutTransaction();
+
     @InjectMocks
     private ProductService productService;
 
@@ -36,13 +94,13 @@ class ProductServiceTest {
     @Test
     void testGetProducts() {
         // ARRANGE
-        ProductEntity product = new ProductEntity("Laptop", "Gaming Laptop", 1500.0);
+        ProductEntity product = new ProductEntity("Laptop", "Gaming Laptop", new BigDecimal("1500.00"));
         Page<ProductEntity> mockPage = new PageImpl<>(List.of(product));
 
         when(productRepository.findAll(any(Pageable.class))).thenReturn(mockPage);
 
         // ACT
-        PagedResponse<ProductEntity> response = productService.getProducts(1, 10, "name", "asc");
+        PagedResponse<ProductEntity> response = productService.getProducts(1, 10, "name", "asc", CountStrategy.EXACT);
 
         // ASSERT
         assertThat(response.content()).hasSize(1);
@@ -51,10 +109,145 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findAll(any(Pageable.class));
     }
 
+    @Test
+    void testGetProducts_CachedCount() {
+        // ARRANGE
+        ProductEntity product = new ProductEntity("Laptop", "Gaming Laptop", new BigDecimal("1500.00"));
+        Slice<ProductEntity> mockSlice = new SliceImpl<>(List.of(product), PageRequest.of(0, 10), false);
+
+        when(productRepository.findAllBy(any(Pageable.class))).thenReturn(mockSlice);
+        when(productCounter.cached()).thenReturn(25L);
+
+        // ACT
+        PagedResponse<ProductEntity> response = productService.getProducts(1, 10, "name", "asc", CountStrategy.CACHED);
+
+        // ASSERT
+        assertThat(response.totalElements()).isEqualTo(25);
+        assertThat(response.totalPages()).isEqualTo(3);
+        verify(productRepository, never()).findAll(any(Pageable.class));
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    void testGetProducts_PriceRange() {
+        // ARRANGE
+        ProductEntity product = new ProductEntity("Laptop", "Gaming Laptop", new BigDecimal("1500.00"));
+        Slice<ProductEntity> mockSlice = new SliceImpl<>(List.of(product), PageRequest.of(0, 10), false);
+        PriceRange priceRange = PriceRange.of(new BigDecimal("1000"), null);
+
+        when(productRepository.findSliceByPriceBetween(eq(new BigDecimal("1000.00")), eq(Prices.MAX),
+                any(Pageable.class))).thenReturn(mockSlice);
+
+        // ACT
+        PagedResponse<ProductEntity> response = productService.getProducts(1, 10, "price", "asc",
+                CountStrategy.CACHED, priceRange);
+
+        // ASSERT
+        assertThat(response.content()).containsExactly(product);
+        assertThat(response.totalElements()).isNull();
+        verify(productRepository, never()).findAllBy(any(Pageable.class));
+        verify(productCounter, never()).cached();
+    }
+
+    @Test
+    void testGetProducts_NoCount() {
+        // ARRANGE
+        ProductEntity product = new ProductEntity("Laptop", "Gaming Laptop", new BigDecimal("1500.00"));
+        Slice<ProductEntity> mockSlice = new SliceImpl<>(List.of(product), PageRequest.of(0, 1), true);
+
+        when(productRepository.findAllBy(any(Pageable.class))).thenReturn(mockSlice);
+
+        // ACT
+        PagedResponse<ProductEntity> response = productService.getProducts(1, 1, "name", "asc", CountStrategy.NONE);
+
+        // ASSERT
+        assertThat(response.content()).hasSize(1);
+        assertThat(response.totalElements()).isNull();
+        assertThat(response.totalPages()).isNull();
+        assertThat(response.hasNext()).isTrue();
+        verifyNoInteractions(productCounter);
+    }
+
+    @Test
+    void testGetProducts_SharesResultWithinWindow() {
+        // ARRANGE
+        pageCoalescer = new RequestCoalescer(100, Duration.ofMinutes(1));
+        productService = new ProductService(productRepository, productCounter, productCache, entityManager,
+                productChangeService, pageCoalescer, pageCache, readOnlyTransactions);
+        Slice<ProductEntity> mockSlice = new SliceImpl<>(
+                List.of(new ProductEntity("Laptop", "Gaming Laptop", new BigDecimal("1500.00"))),
+                PageRequest.of(0, 10), false);
+        when(productRepository.findAllBy(any(Pageable.class))).thenReturn(mockSlice);
+
+        // ACT
+        PagedResponse<ProductEntity> first = productService.getProducts(1, 10, "name", "asc", CountStrategy.NONE);
+        PagedResponse<ProductEntity> second = productService.getProducts(1, 10, "name", "ASC", CountStrategy.NONE);
+        productService.getProducts(2, 10, "name", "asc", CountStrategy.NONE);
+
+        // ASSERT
+        assertThat(second).isSameAs(first);
+        verify(productRepository, times(2)).findAllBy(any(Pageable.class));
+    }
+
+    @Test
+    void testGetProducts_UnsortableField() {
+        // ACT & ASSERT
+        assertThrows(InvalidSortFieldException.class,
+                () -> productService.getProducts(1, 10, "description", "asc", CountStrategy.EXACT));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testGetProductsAfter_FirstPage() {
+        // ARRANGE
+        ProductEntity product = new ProductEntity("Laptop", "Gaming Laptop", new BigDecimal("1500.00"));
+        Window<ProductEntity> window = Window.from(List.of(product),
+                index -> ScrollPosition.forward(Map.of("name", "Laptop", "id", 7L)), true);
+
+        when(productRepository.findAllBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(window);
+
+        // ACT
+        CursorPagedResponse<ProductEntity> response = productService.getProductsAfter("", 1, "name", "asc");
+
+        // ASSERT
+        assertThat(response.content()).hasSize(1);
+        assertThat(response.hasNext()).isTrue();
+        assertThat(CursorCodec.decode(response.nextCursor())).containsEntry("name", "Laptop").containsEntry("id", 7L);
+        verify(productRepository, times(1)).findAllBy(ScrollPosition.keyset(),
+                Sort.by(Sort.Direction.ASC, "name", "id"), Limit.of(1));
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    void testGetProductsAfter_MismatchedCursor() {
+        // ARRANGE
+        String cursor = CursorCodec.encode(Map.of("price", 10.0, "id", 7L));
+
+        // ACT / ASSERT
+        assertThrows(InvalidCursorException.class, () -> productService.getProductsAfter(cursor, 10, "name", "asc"));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testGetProductsAfter_CursorWithWrongTypes() {
+        // ARRANGE
+        String wrongPrice = CursorCodec.encode(Map.of("price", "cheap", "id", 7L));
+        String wrongId = CursorCodec.encode(Map.of("price", new BigDecimal("10.00"), "id", "7"));
+        String extraKey = CursorCodec.encode(Map.of("price", new BigDecimal("10.00"), "id", 7L, "name", "x"));
+
+        // ACT / ASSERT
+        for (String cursor : List.of(wrongPrice, wrongId, extraKey)) {
+            assertThrows(InvalidCursorException.class,
+                    () -> productService.getProductsAfter(cursor, 10, "price", "asc"));
+        }
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     void testCreateProduct() {
         // ARRANGE
-        ProductEntity product = new ProductEntity("Tablet", "Android Tablet", 300.0);
+        ProductEntity product = new ProductEntity("Tablet", "Android Tablet", new BigDecimal("300.00"));
         when(productRepository.save(any(ProductEntity.class))).thenReturn(product);
 
         // ACT
@@ -62,14 +255,15 @@ class ProductServiceTest {
 
         // ASSERT
         assertThat(savedProduct.getName()).isEqualTo("Tablet");
-        assertThat(savedProduct.getPrice()).isEqualTo(300.0);
+        assertThat(savedProduct.getPrice()).isEqualByComparingTo("300.0");
         verify(productRepository, times(1)).save(product);
+        verify(productCounter, times(1)).invalidate();
     }
 
     @Test
     void testGetProductById_Found() {
         // ARRANGE
-        ProductEntity product = new ProductEntity("Phone", "Smartphone", 800.0);
+        ProductEntity product = new ProductEntity("Phone", "Smartphone", new BigDecimal("800.00"));
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
 
         // ACT
@@ -80,6 +274,22 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void testGetProductById_Cached() {
+        // ARRANGE
+        ProductEntity product = new ProductEntity("Phone", "Smartphone", new BigDecimal("800.00"));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        // ACT
+        productService.getProductById(1L);
+        ProductEntity cachedProduct = productService.getProductById(1L);
+
+        // ASSERT
+        assertThat(cachedProduct).isSameAs(product);
+        assertThat(productCache.stats().hitCount()).isEqualTo(1);
+        verify(productRepository, times(1)).findById(1L);
+    }
+
     @Test
     void testGetProductById_NotFound() {
         // ARRANGE
@@ -91,57 +301,229 @@ class ProductServiceTest {
     }
 
     @Test
-    void testUpdateProduct_Found() {
+    void testGetProductsByIds_OnlyMissesHitDatabase() {
         // ARRANGE
-        ProductEntity existingProduct = new ProductEntity("Phone", "Smartphone", 800.0);
-        ProductEntity updatedProduct = new ProductEntity("Updated Phone", "Updated Smartphone", 1000.0);
+        ProductEntity cached = new ProductEntity("Phone", "Smartphone", new BigDecimal("800.00"));
+        cached.setId(1L);
+        ProductEntity stored = new ProductEntity("Tablet", "Android Tablet", new BigDecimal("300.00"));
+        stored.setId(2L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(cached));
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of(stored));
+        productService.getProductById(1L);
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
-        when(productRepository.save(any(ProductEntity.class))).thenReturn(updatedProduct);
+        // ACT
+        Map<Long, ProductEntity> products = productService.getProductsByIds(List.of(2L, 1L, 3L));
+
+        // ASSERT
+        assertThat(products).containsOnlyKeys(1L, 2L);
+        assertThat(products.get(1L)).isSameAs(cached);
+        verify(productRepository, times(1)).findAllById(argThat(ids -> Set.copyOf((List<Long>) ids)
+                .equals(Set.of(2L, 3L))));
+    }
+
+    @Test
+    void testGetProductsByIds_TooMany() {
+        // ARRANGE
+        List<Long> ids = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        // ACT / ASSERT
+        assertThrows(InvalidLookupException.class, () -> productService.getProductsByIds(ids));
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void testUpdateProduct_Found() {
+        // ARRANGE
+        ProductEntity updatedProduct = new ProductEntity("Updated Phone", "Updated Smartphone",
+                new BigDecimal("1000.00"));
+        ProductPatch expectedPatch = new ProductPatch("Updated Phone", "Updated Smartphone", new BigDecimal("1000.00"));
+        when(productRepository.replaceReturning(1L, expectedPatch, null)).thenReturn(Optional.of(updatedProduct));
 
         // ACT
-        ProductEntity result = productService.updateProduct(1L, updatedProduct);
+        ProductEntity result = productService.updateProduct(1L, updatedProduct, null);
 
         // ASSERT
         assertThat(result.getName()).isEqualTo("Updated Phone");
-        assertThat(result.getPrice()).isEqualTo(1000.0);
-        verify(productRepository, times(1)).findById(1L);
-        verify(productRepository, times(1)).save(existingProduct);
+        assertThat(result.getPrice()).isEqualByComparingTo("1000.0");
+        verify(productRepository, times(1)).replaceReturning(1L, expectedPatch, null);
+        verify(productRepository, never()).updateReturning(any(), any(), any());
+        verify(productRepository, never()).findById(any());
+        verify(productCache, times(1)).evict(1L);
     }
 
     @Test
     void testUpdateProduct_NotFound() {
         // ARRANGE
-        ProductEntity updatedProduct = new ProductEntity("Updated Phone", "Updated Smartphone", 1000.0);
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        ProductEntity updatedProduct = new ProductEntity("Updated Phone", "Updated Smartphone",
+                new BigDecimal("1000.00"));
+        when(productRepository.replaceReturning(eq(1L), any(ProductPatch.class), isNull()))
+                .thenReturn(Optional.empty());
 
         // ACT / ASSERT
-        assertThrows(ProductNotFoundException.class, () -> productService.updateProduct(1L, updatedProduct));
-        verify(productRepository, times(1)).findById(1L);
+        assertThrows(ProductNotFoundException.class, () -> productService.updateProduct(1L, updatedProduct, null));
+        verify(productCache, never()).evict(any());
     }
 
     @Test
-    void testDeleteProduct_Found() {
+    void testUpdateProduct_WithoutNameIsRejected() {
+        // ARRANGE
+        ProductEntity updatedProduct = new ProductEntity(null, "Updated Smartphone", new BigDecimal("1000.00"));
+
+        // ACT / ASSERT
+        assertThrows(InvalidWriteException.class, () -> productService.updateProduct(1L, updatedProduct, null));
+        verify(productRepository, never()).replaceReturning(any(), any(), any());
+    }
+
+    @Test
+    void testUpdateProduct_VersionMismatch() {
         // ARRANGE
-        ProductEntity product = new ProductEntity("Tablet", "Android Tablet", 300.0);
+        ProductEntity updatedProduct = new ProductEntity("Updated Phone", "Updated Smartphone",
+                new BigDecimal("1000.00"));
+        when(productRepository.replaceReturning(eq(1L), any(ProductPatch.class), eq(2L)))
+                .thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        // ACT / ASSERT
+        assertThrows(PreconditionFailedException.class, () -> productService.updateProduct(1L, updatedProduct, 2L));
+        verify(productChangeService, never()).record(any(), any());
+    }
+
+    @Test
+    void testPatchProduct_OnlyPresentFields() {
+        // ARRANGE
+        ProductPatch patch = new ProductPatch(null, null, new BigDecimal("750.00"));
+        ProductEntity patchedProduct = new ProductEntity("Phone", "Smartphone", new BigDecimal("750.00"));
+        when(productRepository.updateReturning(1L, patch, null)).thenReturn(Optional.of(patchedProduct));
+
+        // ACT
+        ProductEntity result = productService.patchProduct(1L, patch, null);
+
+        // ASSERT
+        assertThat(result.getName()).isEqualTo("Phone");
+        assertThat(result.getPrice()).isEqualByComparingTo("750.0");
+        verify(productChangeService, times(1)).record(1L, ProductChangeEntity.Type.UPSERT);
+        verify(productCache, times(1)).evict(1L);
+    }
+
+    @Test
+    void testGetProductVersion_ServedFromCacheWithoutQuery() {
+        // ARRANGE
+        ProductEntity product = new ProductEntity("Phone", "Smartphone", new BigDecimal("800.00"));
+        product.setId(1L);
+        product.setVersion(4L);
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        doNothing().when(productRepository).delete(product);
+        productService.getProductById(1L);
+
+        // ACT
+        ProductVersion version = productService.getProductVersion(1L);
+
+        // ASSERT
+        assertThat(version.version()).isEqualTo(4L);
+        verify(productRepository, never()).findVersionById(any());
+    }
+
+    @Test
+    void testGetProductVersion_ReadFromPrimaryOnCacheMiss() {
+        // ARRANGE
+        AtomicBoolean pinned = new AtomicBoolean();
+        when(productRepository.findVersionById(1L)).thenAnswer(invocation -> {
+            pinned.set(ReadYourWrites.isPinned());
+            return Optional.of(new ProductVersion(4L, Instant.EPOCH));
+        });
+
+        // ACT
+        ProductVersion version = productService.getProductVersion(1L);
+
+        // ASSERT
+        assertThat(version.version()).isEqualTo(4L);
+        assertThat(pinned).isTrue();
+    }
+
+    @Test
+    void testDeleteProduct_Found() {
+        // ARRANGE
+        when(productRepository.deleteProductById(1L)).thenReturn(1);
 
         // ACT
         productService.deleteProduct(1L);
 
         // ASSERT
-        verify(productRepository, times(1)).findById(1L);
-        verify(productRepository, times(1)).delete(product);
+        verify(productRepository, times(1)).deleteProductById(1L);
+        verify(productRepository, never()).findById(any());
+        verify(productCache, times(1)).evict(1L);
+        verify(productChangeService, times(1)).record(1L, ProductChangeEntity.Type.DELETE);
+        verify(pageCoalescer, times(1)).invalidateAll();
+        verify(pageCache, times(1)).invalidateAll();
     }
 
     @Test
     void testDeleteProduct_NotFound() {
         // ARRANGE
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.deleteProductById(1L)).thenReturn(0);
 
         // ACT / ASSERT
         assertThrows(ProductNotFoundException.class, () -> productService.deleteProduct(1L));
-        verify(productRepository, times(1)).findById(1L);
+        verify(productChangeService, never()).record(any(), any());
+    }
+
+    @Test
+    void testDeleteProducts() {
+        // ARRANGE
+        when(productRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(List.of(1L));
+
+        // ACT
+        List<BatchItemResult> results = productService.deleteProducts(List.of(1L, 2L));
+
+        // ASSERT
+        assertThat(results).extracting(BatchItemResult::status)
+                .containsExactly(BatchItemResult.Status.DELETED, BatchItemResult.Status.NOT_FOUND);
+        verify(productRepository, times(1)).deleteAllByIdInBatch(Set.of(1L));
+        verify(productCache, times(1)).evictAll(Set.of(1L));
+        verify(productCache, never()).evict(any());
+        verify(productCounter, times(1)).invalidate();
+    }
+
+    @Test
+    void testExportProducts() {
+        // ARRANGE
+        ProductEntity laptop = new ProductEntity("Laptop", "Gaming Laptop", new BigDecimal("1500.00"));
+        ProductEntity phone = new ProductEntity("Phone", "Smartphone", new BigDecimal("800.00"));
+        when(productRepository.streamAll()).thenReturn(Stream.of(laptop, phone));
+        List<ProductEntity> exported = new ArrayList<>();
+
+        // ACT
+        long count = productService.exportProducts(exported::add);
+
+        // ASSERT
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).containsExactly(laptop, phone);
+        verify(entityManager, times(1)).detach(laptop);
+        verify(entityManager, times(1)).detach(phone);
+    }
+
+    @Test
+    void testSearchProducts() {
+        // ARRANGE
+        ProductEntity product = new ProductEntity("Laptop", "Gaming Laptop", new BigDecimal("1500.00"));
+        Slice<ProductEntity> mockSlice = new SliceImpl<>(List.of(product), PageRequest.of(0, 10), false);
+        when(productRepository.search(eq("lap"), isNull(), eq(new BigDecimal("2000")), any(Pageable.class)))
+                .thenReturn(mockSlice);
+
+        // ACT
+        PagedResponse<ProductEntity> response = productService.searchProducts(" lap ", null, new BigDecimal("2000"), 1,
+                10, "name", "asc");
+
+        // ASSERT
+        assertThat(response.content()).containsExactly(product);
+        assertThat(response.totalElements()).isNull();
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    void testSearchProducts_QueryTooShort() {
+        // ACT / ASSERT
+        assertThrows(InvalidSearchException.class,
+                () -> productService.searchProducts("la", null, null, 1, 10, "name", "asc"));
+        verifyNoInteractions(productRepository);
     }
 }
\ No newline at end of file
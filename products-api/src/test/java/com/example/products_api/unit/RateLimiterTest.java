@@ -0,0 +1,159 @@
+package com.example.products_api.unit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.products_api.ratelimit.AdaptiveConcurrencyLimiter;
+import com.example.products_api.ratelimit.ClientRateLimiter;
+import com.example.products_api.ratelimit.RateLimitFilter;
+import com.example.products_api.ratelimit.TokenBucket;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+class RateLimiterTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void testTokenBucket_AllowsBurstThenRefillsAtRate() {
+        // ARRANGE
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        // ACT
+        int admitted = 0;
+        while (bucket.tryAcquire(0) == 0) {
+            admitted++;
+        }
+        long wait = bucket.tryAcquire(0);
+
+        // ASSERT
+        assertThat(admitted).isEqualTo(5);
+        assertThat(wait).isEqualTo(SECOND / 10);
+        assertThat(bucket.tryAcquire(SECOND / 10)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 10)).isPositive();
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = { 0, -1, Double.NaN, Double.POSITIVE_INFINITY })
+    void testClientRateLimiter_RejectsInvalidDefaultRate(double requestsPerSecond) {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClientRateLimiter(requestsPerSecond, Map.of(), 2, 100));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = { 0, -1, Double.NaN, Double.POSITIVE_INFINITY })
+    void testClientRateLimiter_RejectsInvalidBurst(double burstSeconds) {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClientRateLimiter(1, Map.of(), burstSeconds, 100));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = { 0, -1, Double.NaN, Double.POSITIVE_INFINITY })
+    void testClientRateLimiter_RejectsInvalidQuota(double requestsPerSecond) {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClientRateLimiter(1, Map.of("key:partner", requestsPerSecond), 2, 100));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = { 0, -1, Double.NaN, Double.POSITIVE_INFINITY })
+    void testTokenBucket_RejectsInvalidRate(double permitsPerSecond) {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(permitsPerSecond, 5, 0));
+    }
+
+    @Test
+    void testClientRateLimiter_QuotasArePerClient() {
+        // ARRANGE
+        ClientRateLimiter limiter = new ClientRateLimiter(1, Map.of("key:partner", 1000.0), 2, 100);
+
+        // ACT
+        long thirdDefault = 0;
+        for (int i = 0; i < 3; i++) {
+            thirdDefault = limiter.tryAcquire("ip:10.0.0.1");
+        }
+        long partner = limiter.tryAcquire("key:partner");
+        long otherClient = limiter.tryAcquire("ip:10.0.0.2");
+
+        // ASSERT
+        assertThat(thirdDefault).isPositive();
+        assertThat(partner).isZero();
+        assertThat(otherClient).isZero();
+    }
+
+    @Test
+    void testRateLimitFilter_UnknownApiKeysAreLimitedByAddress() throws Exception {
+        // ARRANGE
+        RateLimitFilter filter = new RateLimitFilter(new ClientRateLimiter(1, Map.of(), 2, 100),
+                new AdaptiveConcurrencyLimiter(10, 1, 10, 2.0), Set.of("issued"));
+
+        // ACT
+        int[] unknownKeys = new int[3];
+        for (int i = 0; i < unknownKeys.length; i++) {
+            unknownKeys[i] = send(filter, "10.0.0.1", UUID.randomUUID().toString());
+        }
+        int issuedKey = send(filter, "10.0.0.1", "issued");
+        int otherAddress = send(filter, "10.0.0.2", null);
+
+        // ASSERT
+        assertThat(unknownKeys).containsExactly(200, 200, 429);
+        assertThat(issuedKey).isEqualTo(200);
+        assertThat(otherAddress).isEqualTo(200);
+    }
+
+    private static int send(RateLimitFilter filter, String remoteAddress, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setRemoteAddr(remoteAddress);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Test
+    void testAdaptiveConcurrencyLimiter_ShedsOverLimit() {
+        // ARRANGE
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0);
+
+        // ACT
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+
+        // ASSERT
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+    }
+
+    @Test
+    void testAdaptiveConcurrencyLimiter_GrowsWhenFastAndShrinksWhenSlow() {
+        // ARRANGE
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 2.0);
+
+        // ACT
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 10; i++) {
+            limiter.release(1_000_000);
+        }
+        int grown = limiter.limit();
+        limiter.tryAcquire();
+        limiter.release(50_000_000);
+
+        // ASSERT
+        assertThat(grown).isGreaterThan(10);
+        assertThat(limiter.limit()).isLessThan(grown);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.products_api.unit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.example.products_api.datasource.ReadYourWrites;
+import com.example.products_api.datasource.ReplicaRoutingDataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+
+    @AfterEach
+    void tearDown() {
+        routing.close();
+    }
+
+    @Test
+    void testGetConnection_RoundRobinsOverHealthyReplicas() throws SQLException {
+        // ARRANGE
+        DataSource primary = dataSource("H2");
+        DataSource replica0 = dataSource("H2");
+        DataSource replica1 = dataSource("H2");
+        routing = start(primary, replica0, replica1);
+
+        // ACT
+        Connection first = routing.getConnection();
+        Connection second = routing.getConnection();
+
+        // ASSERT
+        assertThat(first).isNotSameAs(second);
+        verify(primary, never()).getConnection();
+        verify(replica0, times(2)).getConnection();
+        verify(replica1, times(2)).getConnection();
+    }
+
+    @Test
+    void testGetConnection_FallsBackToPrimaryWhenReplicasLagOrFail() throws SQLException {
+        // ARRANGE
+        DataSource primary = dataSource("H2");
+        DataSource lagging = postgresDataSource(60_000);
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("Connection refused"));
+        routing = start(primary, lagging, failing);
+
+        // ACT
+        routing.getConnection();
+
+        // ASSERT
+        verify(primary).getConnection();
+        verify(lagging, times(1)).getConnection();
+    }
+
+    @Test
+    void testGetConnection_RetriesOnPrimaryWhenReplicaRefusesConnection() throws SQLException {
+        // ARRANGE
+        DataSource primary = dataSource("H2");
+        Connection replicaConnection = connection("H2");
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenReturn(replicaConnection)
+                .thenThrow(new SQLException("Connection is not available, request timed out after 2000ms"));
+        routing = start(primary, replica);
+
+        // ACT
+        Connection first = routing.getConnection();
+        Connection second = routing.getConnection();
+
+        // ASSERT
+        assertThat(first).isNotSameAs(replicaConnection);
+        assertThat(second).isNotSameAs(replicaConnection);
+        verify(primary, times(2)).getConnection();
+        verify(replica, times(2)).getConnection();
+    }
+
+    @Test
+    void testGetConnection_ReadsFromReplicaWithinMaxLag() throws SQLException {
+        // ARRANGE
+        DataSource primary = dataSource("H2");
+        DataSource replica = postgresDataSource(200);
+        routing = start(primary, replica);
+
+        // ACT
+        routing.getConnection();
+
+        // ASSERT
+        verify(primary, never()).getConnection();
+        verify(replica, times(2)).getConnection();
+    }
+
+    @Test
+    void testGetConnection_PinnedThreadReadsFromPrimary() throws SQLException {
+        // ARRANGE
+        DataSource primary = dataSource("H2");
+        DataSource replica = dataSource("H2");
+        routing = start(primary, replica);
+
+        // ACT
+        ReadYourWrites.onPrimary(() -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // ASSERT
+        assertThat(ReadYourWrites.isPinned()).isFalse();
+        verify(primary).getConnection();
+        verify(replica, times(1)).getConnection();
+    }
+
+    private static ReplicaRoutingDataSource start(DataSource primary, DataSource... replicas) {
+        Map<String, DataSource> named = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.length; i++) {
+            named.put("replica-" + i, replicas[i]);
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, named, Duration.ofSeconds(5));
+        routing.afterPropertiesSet();
+        routing.start(Duration.ofHours(1));
+        return routing;
+    }
+
+    private static DataSource dataSource(String productName) throws SQLException {
+        return dataSource(connection(productName));
+    }
+
+    private static DataSource postgresDataSource(long lagMillis) throws SQLException {
+        Connection connection = connection("PostgreSQL");
+        Statement statement = mock(Statement.class);
+        ResultSet result = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(result);
+        when(result.next()).thenReturn(true);
+        when(result.getLong(1)).thenReturn(lagMillis);
+        return dataSource(connection);
+    }
+
+    private static DataSource dataSource(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private static Connection connection(String productName) throws SQLException {
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(metaData.getDatabaseProductName()).thenReturn(productName);
+        return connection;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.products_api.unit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.products_api.cache.RequestCoalescer;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RequestCoalescerTest {
+
+    @Test
+    void testExecute_ConcurrentIdenticalCallsShareOneExecution() throws Exception {
+        // ARRANGE
+        RequestCoalescer coalescer = new RequestCoalescer(100, Duration.ZERO);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coalescer.bindTo(registry);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // ACT
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> coalescer.execute("page-1", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "result";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(
+                () -> coalescer.execute("page-1", () -> {
+                    executions.incrementAndGet();
+                    return "other";
+                }));
+        while (registry.get("products.coalescing.collapsed").functionCounter().count() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // ASSERT
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(executions).hasValue(1);
+        assertThat(registry.get("products.coalescing.collapsed").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testExecute_SharesCompletedResultWithinWindowUntilInvalidated() {
+        // ARRANGE
+        RequestCoalescer coalescer = new RequestCoalescer(100, Duration.ofMinutes(1));
+        AtomicInteger executions = new AtomicInteger();
+
+        // ACT
+        coalescer.execute("page-1", executions::incrementAndGet);
+        Integer shared = coalescer.execute("page-1", executions::incrementAndGet);
+        Integer otherKey = coalescer.execute("page-2", executions::incrementAndGet);
+        coalescer.invalidateAll();
+        Integer afterWrite = coalescer.execute("page-1", executions::incrementAndGet);
+
+        // ASSERT
+        assertThat(shared).isEqualTo(1);
+        assertThat(otherKey).isEqualTo(2);
+        assertThat(afterWrite).isEqualTo(3);
+    }
+
+    @Test
+    void testExecute_FailureIsNotShared() {
+        // ARRANGE
+        RequestCoalescer coalescer = new RequestCoalescer(100, Duration.ofMinutes(1));
+
+        // ACT
+        assertThrows(IllegalStateException.class, () -> coalescer.execute("page-1", () -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+        String result = coalescer.execute("page-1", () -> "result");
+
+        // ASSERT
+        assertThat(result).isEqualTo("result");
+    }
+
+    @Test
+    void testExecute_ErrorDoesNotLeaveTheKeyInFlight() throws Exception {
+        // ARRANGE
+        RequestCoalescer coalescer = new RequestCoalescer(100, Duration.ofMinutes(1));
+
+        // ACT
+        assertThrows(StackOverflowError.class, () -> coalescer.execute("page-1", () -> {
+            throw new StackOverflowError();
+        }));
+        CompletableFuture<String> next = CompletableFuture.supplyAsync(() -> coalescer.execute("page-1",
+                () -> "result"));
+
+        // ASSERT
+        assertThat(next.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
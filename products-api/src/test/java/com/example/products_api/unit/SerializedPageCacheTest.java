@@ -0,0 +1,40 @@
+package com.example.products_api.unit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.products_api.cache.LocalProductCacheInvalidationBus;
+import com.example.products_api.cache.SerializedPageCache;
+import com.example.products_api.cache.SerializedPageCache.SerializedPage;
+import com.example.products_api.service.CountStrategy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+class SerializedPageCacheTest {
+
+    private static final SerializedPageCache.Key KEY = new SerializedPageCache.Key(1, 10, "name", "asc",
+            CountStrategy.EXACT, MediaType.APPLICATION_JSON);
+
+    @Test
+    void testGet_ErrorDoesNotLeaveTheKeyInFlight() throws Exception {
+        // ARRANGE
+        SerializedPageCache pageCache = new SerializedPageCache(100, Duration.ofMinutes(1), 5,
+                new LocalProductCacheInvalidationBus());
+        SerializedPage rendered = new SerializedPage(new byte[] { '[', ']' }, MediaType.APPLICATION_JSON, "\"1\"", null);
+
+        // ACT
+        assertThrows(StackOverflowError.class, () -> pageCache.get(KEY, () -> {
+            throw new StackOverflowError();
+        }));
+        CompletableFuture<SerializedPage> next = CompletableFuture.supplyAsync(() -> pageCache.get(KEY,
+                () -> rendered));
+
+        // ASSERT
+        assertThat(next.get(5, TimeUnit.SECONDS)).isSameAs(rendered);
+    }
+}
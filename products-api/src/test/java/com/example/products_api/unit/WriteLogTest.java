@@ -0,0 +1,93 @@
+package com.example.products_api.unit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.products_api.writes.WriteCommand;
+import com.example.products_api.writes.WriteLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+class WriteLogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecover_ReturnsUnappliedCommandsInOrder() throws Exception {
+        // ARRANGE
+        try (WriteLog writeLog = new WriteLog(directory, objectMapper)) {
+            writeLog.append(command("t-1"));
+            writeLog.append(command("t-2"));
+            writeLog.append(command("t-3"));
+            writeLog.markApplied(writeLog.peek(1));
+        }
+
+        // ACT
+        try (WriteLog recovered = new WriteLog(directory, objectMapper)) {
+
+            // ASSERT
+            assertThat(recovered.peek(10)).extracting(entry -> entry.command().trackingId())
+                    .containsExactly("t-2", "t-3");
+        }
+    }
+
+    @Test
+    void testRecover_DiscardsTornLastLine() throws Exception {
+        // ARRANGE
+        try (WriteLog writeLog = new WriteLog(directory, objectMapper)) {
+            writeLog.append(command("t-1"));
+        }
+        Files.writeString(directory.resolve("writes.log"), "{\"trackingId\":\"t-2\",\"na",
+                StandardOpenOption.APPEND);
+
+        // ACT
+        try (WriteLog recovered = new WriteLog(directory, objectMapper)) {
+            recovered.append(command("t-3"));
+        }
+        try (WriteLog recovered = new WriteLog(directory, objectMapper)) {
+
+            // ASSERT
+            assertThat(recovered.peek(10)).extracting(entry -> entry.command().trackingId())
+                    .containsExactly("t-1", "t-3");
+        }
+    }
+
+    @Test
+    void testMarkApplied_TruncatesOnceEverythingIsApplied() throws Exception {
+        // ARRANGE
+        try (WriteLog writeLog = new WriteLog(directory, objectMapper)) {
+            writeLog.append(command("t-1"));
+            writeLog.append(command("t-2"));
+
+            // ACT
+            List<WriteLog.Entry> entries = writeLog.peek(10);
+            writeLog.markApplied(entries);
+            writeLog.append(command("t-3"));
+
+            // ASSERT
+            assertThat(entries).hasSize(2);
+            assertThat(writeLog.unappliedCount()).isEqualTo(1);
+            assertThat(writeLog.peek(10).get(0).start()).isZero();
+        }
+        try (WriteLog recovered = new WriteLog(directory, objectMapper)) {
+            assertThat(recovered.peek(10)).extracting(entry -> entry.command().trackingId())
+                    .containsExactly("t-3");
+        }
+    }
+
+    private static WriteCommand command(String trackingId) {
+        return new WriteCommand(trackingId, null, WriteCommand.Operation.CREATE, null, "Tablet", "Android Tablet",
+                new BigDecimal("300.00"), Instant.now());
+    }
+}
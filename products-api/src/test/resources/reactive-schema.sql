@@ -0,0 +1,18 @@
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS products (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    price NUMERIC(19, 2) NOT NULL,
+    version BIGINT,
+    last_modified TIMESTAMP(6) WITH TIME ZONE
+);
+CREATE SEQUENCE IF NOT EXISTS product_changes_seq START WITH 1 INCREMENT BY 1;
+CREATE TABLE IF NOT EXISTS product_changes (
+    id BIGINT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    type VARCHAR(16) NOT NULL,
+    changed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+CREATE INDEX IF NOT EXISTS products_name_id_idx ON products (name, id);
+CREATE INDEX IF NOT EXISTS products_price_id_idx ON products (price, id);